@@ -3,27 +3,43 @@ package io.github.jdeeplearn.rag.command;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jdeeplearn.rag.jfr.ParseEvent;
 import io.github.jdeeplearn.rag.service.FaqUploaderService;
 import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.tenant.Tenant;
+import io.github.jdeeplearn.rag.tenant.TenantRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * CLI entry point that loads faq.json and triggers FaqUploaderService.
+ * Active in the default one-shot mode (uploader.mode=batch).
+ *
+ * With tenants configured, loads every tenant's input-file into its own collection
+ * instead, all tenants at once; the shared FairScheduler keeps a large tenant from
+ * holding up the others.
  */
 @Component
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "batch", matchIfMissing = true)
 public class FaqLoaderCommand implements CommandLineRunner {
 
     private static final Logger log = LogManager.getLogger(FaqLoaderCommand.class);
 
     private final FaqUploaderService uploaderService;
+    private final TenantRegistry tenants;
     private final ObjectMapper mapper = new ObjectMapper()
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
@@ -33,8 +49,9 @@ public class FaqLoaderCommand implements CommandLineRunner {
     @Value("${uploader.auto-run:true}")
     private boolean autoRun;
 
-    public FaqLoaderCommand(FaqUploaderService uploaderService) {
+    public FaqLoaderCommand(FaqUploaderService uploaderService, @Nullable TenantRegistry tenants) {
         this.uploaderService = uploaderService;
+        this.tenants = tenants;
     }
 
     @Override
@@ -44,12 +61,66 @@ public class FaqLoaderCommand implements CommandLineRunner {
             return;
         }
 
-        try (InputStream is = inputFile.getInputStream()) {
-            List<FaqInput> faqs = mapper.readValue(is, new TypeReference<>() {});
+        if (tenants != null) {
+            loadTenants();
+        } else {
+            load(inputFile, uploaderService);
+        }
+    }
+
+    private void loadTenants() {
+        List<Tenant> withInput = tenants.all().stream().filter(tenant -> tenant.inputFile() != null).toList();
+        if (withInput.isEmpty()) {
+            log.warn("No tenant has an input-file; nothing to load");
+            return;
+        }
+
+        ExecutorService runner = Executors.newFixedThreadPool(withInput.size());
+        try {
+            CompletableFuture.allOf(withInput.stream()
+                    .map(tenant -> CompletableFuture.runAsync(() -> {
+                        log.info("Loading tenant '{}' into {}.{}", tenant.name(), tenant.scope(), tenant.collection());
+                        load(tenant.inputFile(), tenant.uploader());
+                    }, runner))
+                    .toArray(CompletableFuture[]::new)).join();
+        } finally {
+            runner.shutdown();
+        }
+    }
+
+    private void load(Resource inputFile, FaqUploaderService uploader) {
+        try {
+            List<FaqInput> faqs = parse(inputFile);
             log.info("Loaded {} FAQ entries from {}", faqs.size(), inputFile.getFilename());
-            uploaderService.uploadFaqs(faqs);
+            uploader.uploadFaqs(faqs);
         } catch (Exception e) {
             log.error("Failed to process FAQ input file '{}': {}", inputFile.getFilename(), e.getMessage(), e);
         }
     }
+
+    private List<FaqInput> parse(Resource inputFile) throws IOException {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        try (InputStream is = inputFile.getInputStream()) {
+            List<FaqInput> faqs = mapper.readValue(is, new TypeReference<>() {});
+            event.records = faqs.size();
+            event.succeeded = true;
+            return faqs;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.source = inputFile.getDescription();
+                event.bytes = contentLengthOrUnknown(inputFile);
+                event.commit();
+            }
+        }
+    }
+
+    private static long contentLengthOrUnknown(Resource inputFile) {
+        try {
+            return inputFile.contentLength();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
 }
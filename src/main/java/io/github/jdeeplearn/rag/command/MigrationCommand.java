@@ -0,0 +1,176 @@
+package io.github.jdeeplearn.rag.command;
+
+import com.couchbase.client.core.error.CollectionExistsException;
+import com.couchbase.client.java.Cluster;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jdeeplearn.rag.config.CouchbaseReadiness;
+import io.github.jdeeplearn.rag.index.VectorSearchIndexManager;
+import io.github.jdeeplearn.rag.service.FaqIds;
+import io.github.jdeeplearn.rag.service.FaqUploaderService;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.service.UploadProgress;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blue/green re-embedding (uploader.mode=migrate).
+ *
+ * Loads faq.json into a new collection and index (uploader.collection /
+ * vector.index-name, e.g. faqs_v2 / faq_vectors_v2) under the current embedding
+ * settings, paced by uploader.max-docs-per-second so live search keeps its capacity.
+ * Once every FAQ is stored and the new index has ingested all of them, the FTS alias
+ * that queries use (vector.search-alias) is repointed to the new index in one update.
+ * The previous index and collection are only dropped when migration.drop-previous is set.
+ *
+ * Any failure leaves the alias untouched.
+ */
+@Component
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "migrate")
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+public class MigrationCommand implements CommandLineRunner {
+
+    private static final Logger log = LogManager.getLogger(MigrationCommand.class);
+
+    private final FaqUploaderService uploaderService;
+    private final VectorSearchIndexManager indexManager;
+    private final Cluster cluster;
+    private final CouchbaseReadiness readiness;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Value("${uploader.input-file:classpath:faq.json}")
+    private Resource inputFile;
+
+    @Value("${spring.data.couchbase.bucket-name:faq_bucket}")
+    private String bucketName;
+
+    @Value("${spring.data.couchbase.scope-name:faq_scope}")
+    private String scopeName;
+
+    @Value("${uploader.collection:faqs}")
+    private String collectionName;
+
+    @Value("${vector.index-name:faq_vectors}")
+    private String indexName;
+
+    @Value("${vector.search-alias:faq_search}")
+    private String alias;
+
+    @Value("${migration.previous-collection:}")
+    private String previousCollection;
+
+    @Value("${migration.drop-previous:false}")
+    private boolean dropPrevious;
+
+    @Value("${migration.verify-timeout-seconds:600}")
+    private int verifyTimeoutSeconds;
+
+    public MigrationCommand(
+            FaqUploaderService uploaderService,
+            VectorSearchIndexManager indexManager,
+            Cluster cluster,
+            CouchbaseReadiness readiness
+    ) {
+        this.uploaderService = uploaderService;
+        this.indexManager = indexManager;
+        this.cluster = cluster;
+        this.readiness = readiness;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (alias.equals(indexName)) {
+            log.error("Migration needs vector.search-alias to differ from vector.index-name ('{}'); nothing done", alias);
+            return;
+        }
+
+        try {
+            Set<String> previousTargets = indexManager.aliasTargets(alias);
+            log.info("Migrating into {}.{} / index '{}'; alias '{}' currently targets {}",
+                    scopeName, collectionName, indexName, alias, previousTargets);
+
+            createCollectionIfMissing();
+
+            List<FaqInput> faqs;
+            try (InputStream is = inputFile.getInputStream()) {
+                faqs = mapper.readValue(is, new TypeReference<>() {});
+            }
+
+            UploadProgress progress = uploaderService.uploadFaqs(faqs);
+            if (progress.getSucceeded() != progress.getSubmitted()) {
+                throw new IllegalStateException("Only " + progress.getSucceeded() + " of " + progress.getSubmitted()
+                        + " FAQs loaded (" + progress.getFailed() + " failed)");
+            }
+            // All writes succeeded: one stored document per distinct key
+            // (FAQs repeated in the source share one document)
+            long expected = faqs.stream().map(FaqIds::of).distinct().count();
+            awaitIndexed(expected);
+
+            indexManager.pointAlias(alias, indexName);
+
+            if (dropPrevious) {
+                dropPrevious(previousTargets);
+            }
+            log.info("Migration complete: {} FAQs, alias '{}' -> '{}'", expected, alias, indexName);
+
+        } catch (Exception e) {
+            log.error("Migration into '{}' failed, alias '{}' left unchanged: {}", indexName, alias, e.getMessage(), e);
+        }
+    }
+
+    private void createCollectionIfMissing() {
+        readiness.future().join();
+        try {
+            cluster.bucket(bucketName).collections().createCollection(scopeName, collectionName);
+            log.info("Created collection {}.{}", scopeName, collectionName);
+        } catch (CollectionExistsException e) {
+            log.warn("Collection {}.{} already exists; loading into it", scopeName, collectionName);
+        }
+    }
+
+    /**
+     * Waits until the new index has ingested at least every successfully written FAQ.
+     */
+    private void awaitIndexed(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(verifyTimeoutSeconds);
+        long indexed = indexManager.documentCount(indexName);
+        while (indexed < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Index '" + indexName + "' has " + indexed
+                        + " of " + expected + " documents after " + verifyTimeoutSeconds + "s");
+            }
+            log.info("Index '{}' has {} of {} documents, waiting", indexName, indexed, expected);
+            TimeUnit.SECONDS.sleep(2);
+            indexed = indexManager.documentCount(indexName);
+        }
+        if (indexed > expected) {
+            log.warn("Index '{}' has {} documents, more than the {} loaded; the collection was not empty",
+                    indexName, indexed, expected);
+        }
+        log.info("Verified index '{}': {} documents", indexName, indexed);
+    }
+
+    private void dropPrevious(Set<String> previousTargets) {
+        for (String previous : previousTargets) {
+            if (!previous.equals(indexName)) {
+                indexManager.deleteIndex(previous);
+            }
+        }
+        if (!previousCollection.isBlank() && !previousCollection.equals(collectionName)) {
+            cluster.bucket(bucketName).collections().dropCollection(scopeName, previousCollection);
+            log.info("Dropped collection {}.{}", scopeName, previousCollection);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.jdeeplearn.rag.command;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jdeeplearn.rag.service.FaqIds;
+import io.github.jdeeplearn.rag.service.FaqUploaderService;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.service.StaleFaqPruner;
+import io.github.jdeeplearn.rag.service.StaleFaqPruner.PruneReport;
+import io.github.jdeeplearn.rag.service.UploadProgress;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Full sync (uploader.mode=sync): loads faq.json like batch mode, then removes the
+ * stored FAQs that are no longer in it (see StaleFaqPruner).
+ *
+ * Pruning is skipped unless every submitted FAQ was written, patched or found
+ * unchanged, so a partial run never deletes.
+ */
+@Component
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "sync")
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+public class SyncCommand implements CommandLineRunner {
+
+    private static final Logger log = LogManager.getLogger(SyncCommand.class);
+
+    private final FaqUploaderService uploaderService;
+    private final StaleFaqPruner pruner;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Value("${uploader.input-file:classpath:faq.json}")
+    private Resource inputFile;
+
+    public SyncCommand(FaqUploaderService uploaderService, StaleFaqPruner pruner) {
+        this.uploaderService = uploaderService;
+        this.pruner = pruner;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            List<FaqInput> faqs;
+            try (InputStream is = inputFile.getInputStream()) {
+                faqs = mapper.readValue(is, new TypeReference<>() {});
+            }
+            log.info("Loaded {} FAQ entries from {}", faqs.size(), inputFile.getFilename());
+
+            UploadProgress progress = uploaderService.uploadFaqs(faqs);
+            // Also catches FAQs never accounted for, e.g. after an interrupted upload
+            if (progress.getSucceeded() != progress.getSubmitted()) {
+                log.error("Only {} of {} FAQs loaded ({} failed); skipping removal of stale FAQs",
+                        progress.getSucceeded(), progress.getSubmitted(), progress.getFailed());
+                return;
+            }
+
+            Set<String> seen = faqs.stream().map(FaqIds::of).collect(Collectors.toSet());
+            PruneReport report = pruner.prune(seen);
+            log.info("Sync complete: {} FAQs in source, {} stored, {} stale, {} removed{}",
+                    seen.size(), report.stored(), report.orphanCount(), report.removed(),
+                    report.dryRun() ? " (dry run)" : "");
+
+        } catch (Exception e) {
+            log.error("Sync of '{}' failed: {}", inputFile.getFilename(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.jdeeplearn.rag.command;
+
+import io.github.jdeeplearn.rag.config.CouchbaseReadiness;
+import io.github.jdeeplearn.rag.model.StoredVector;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.service.VectorTruncation;
+import io.github.jdeeplearn.rag.snapshot.KeyRange;
+import io.github.jdeeplearn.rag.snapshot.VectorSnapshotWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Vector snapshot export (uploader.mode=snapshot).
+ *
+ * Streams the key and question_vector of every document in the collection with
+ * parallel KV range scans (see KeyRange) into one memory-mappable binary file
+ * (see VectorSnapshot), for offline evaluation and analysis without N1QL or
+ * JSON parsing on the consumer side. Nothing is embedded or written to Couchbase.
+ * The process exits with 0 once the file is written and 1 when the export failed.
+ */
+@Component
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "snapshot")
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+public class VectorSnapshotCommand implements CommandLineRunner {
+
+    private static final Logger log = LogManager.getLogger(VectorSnapshotCommand.class);
+
+    private final CouchbaseFaqRepository repository;
+    private final CouchbaseReadiness readiness;
+    private final ApplicationContext context;
+
+    @Value("${snapshot.file:export/faq-vectors.fvec}")
+    private String file;
+
+    @Value("${snapshot.partitions:8}")
+    private int partitions;
+
+    @Value("${snapshot.key-prefix:faq-}")
+    private String keyPrefix;
+
+    @Value("${embedding.dim:768}")
+    private int dim;
+
+    @Value("${vector.stored-dim:0}")
+    private int storedDim;
+
+    public VectorSnapshotCommand(CouchbaseFaqRepository repository, CouchbaseReadiness readiness,
+                                 ApplicationContext context) {
+        this.repository = repository;
+        this.readiness = readiness;
+        this.context = context;
+    }
+
+    @Override
+    public void run(String... args) {
+        List<KeyRange> ranges = KeyRange.split(keyPrefix, partitions);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(ranges.size(), Math.max(1, partitions)));
+        long start = System.nanoTime();
+        int exitCode;
+
+        try (VectorSnapshotWriter writer = new VectorSnapshotWriter(
+                Path.of(file), VectorTruncation.storedDim(dim, storedDim), ranges.size())) {
+            readiness.future().join();
+
+            List<CompletableFuture<Void>> scans = new ArrayList<>(ranges.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                VectorSnapshotWriter.Partition partition = writer.partition(i);
+                KeyRange range = ranges.get(i);
+                scans.add(CompletableFuture.runAsync(() -> scan(range, partition), executor));
+            }
+            CompletableFuture.allOf(scans.toArray(CompletableFuture[]::new)).join();
+
+            long count = writer.finish();
+            log.info("Vector snapshot complete: {} vectors in {} ms -> {}",
+                    count, (System.nanoTime() - start) / 1_000_000, Path.of(file).toAbsolutePath());
+            exitCode = 0;
+
+        } catch (Exception e) {
+            log.error("Vector snapshot to '{}' failed: {}", file, e.getMessage(), e);
+            exitCode = 1;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private void scan(KeyRange range, VectorSnapshotWriter.Partition partition) {
+        try (Stream<StoredVector> vectors = repository.scanVectors(range.from(), range.to())) {
+            Iterator<StoredVector> it = vectors.iterator();
+            while (it.hasNext()) {
+                StoredVector stored = it.next();
+                partition.add(stored.id(), stored.vector());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Scanned {}: {} vectors{}", range, partition.size(),
+                partition.skipped() > 0 ? ", " + partition.skipped() + " skipped (dimension mismatch)" : "");
+    }
+}
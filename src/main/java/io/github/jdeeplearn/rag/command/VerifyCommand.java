@@ -0,0 +1,118 @@
+package io.github.jdeeplearn.rag.command;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jdeeplearn.rag.config.CouchbaseReadiness;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.service.LoadVerifier;
+import io.github.jdeeplearn.rag.service.LoadVerifier.Mismatch;
+import io.github.jdeeplearn.rag.service.LoadVerifier.VerifyReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Load verification (uploader.mode=verify): reads back every FAQ of faq.json and
+ * checks it against the source (see LoadVerifier). Nothing is embedded or written.
+ *
+ * Each mismatch is written to verify.report-file (tab-separated id, reason, detail)
+ * when set. The process exits with 0 when everything matched, 1 on mismatches and
+ * 2 when verification could not run, so it can gate a deployment pipeline.
+ */
+@Component
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "verify")
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+public class VerifyCommand implements CommandLineRunner {
+
+    private static final Logger log = LogManager.getLogger(VerifyCommand.class);
+
+    private final LoadVerifier verifier;
+    private final CouchbaseReadiness readiness;
+    private final ApplicationContext context;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Value("${uploader.input-file:classpath:faq.json}")
+    private Resource inputFile;
+
+    @Value("${verify.report-file:}")
+    private String reportFile;
+
+    public VerifyCommand(LoadVerifier verifier, CouchbaseReadiness readiness, ApplicationContext context) {
+        this.verifier = verifier;
+        this.readiness = readiness;
+        this.context = context;
+    }
+
+    @Override
+    public void run(String... args) {
+        int exitCode;
+        try {
+            List<FaqInput> faqs;
+            try (InputStream is = inputFile.getInputStream()) {
+                faqs = mapper.readValue(is, new TypeReference<>() {});
+            }
+            log.info("Loaded {} FAQ entries from {}", faqs.size(), inputFile.getFilename());
+            readiness.future().join();
+
+            VerifyReport report = reportFile.isBlank()
+                    ? verifier.verify(faqs, mismatch -> { })
+                    : verifyToFile(faqs, Path.of(reportFile));
+
+            report.examples().forEach(mismatch ->
+                    log.warn("Mismatch {} {}: {}", mismatch.id(), mismatch.reason(), mismatch.detail()));
+            if (report.passed()) {
+                log.info("Verification passed: all {} FAQs match", report.expected());
+                exitCode = 0;
+            } else {
+                log.error("Verification failed: {} of {} FAQs do not match {}",
+                        report.mismatchCount(), report.expected(), report.mismatches());
+                exitCode = 1;
+            }
+
+        } catch (Exception e) {
+            log.error("Verification of '{}' failed: {}", inputFile.getFilename(), e.getMessage(), e);
+            exitCode = 2;
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private VerifyReport verifyToFile(List<FaqInput> faqs, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            VerifyReport report = verifier.verify(faqs, mismatch -> write(writer, mismatch));
+            log.info("Mismatch report written to {}", file.toAbsolutePath());
+            return report;
+        }
+    }
+
+    private static void write(BufferedWriter writer, Mismatch mismatch) {
+        try {
+            writer.write(mismatch.id() + '\t' + mismatch.reason() + '\t'
+                    + mismatch.detail().replace('\t', ' ').replace('\n', ' '));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package io.github.jdeeplearn.rag.command;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jdeeplearn.rag.service.FaqIds;
+import io.github.jdeeplearn.rag.service.FaqUploaderService;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.service.UploadProgress;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Continuous incremental ingestion (uploader.mode=watch).
+ *
+ * Watches watch.dir for *.json (array, same shape as faq.json) and *.ndjson (one
+ * FAQ per line) files:
+ *  - bursts of file events are coalesced until the directory has been quiet for
+ *    watch.debounce-ms (at most watch.max-delay-ms after the first event);
+ *  - only the files that changed are parsed, and only the records whose content
+ *    differs from the last successfully ingested version of that file are uploaded;
+ *  - a file that cannot be parsed (e.g. still being written) is retried on its next event.
+ *
+ * Records removed from a file are not deleted here; run sync mode for that.
+ */
+@Component
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "watch")
+public class WatchCommand implements CommandLineRunner {
+
+    private static final Logger log = LogManager.getLogger(WatchCommand.class);
+
+    private final FaqUploaderService uploaderService;
+    private final Path directory;
+    private final long debounceNanos;
+    private final long maxDelayNanos;
+    private final boolean initialLoad;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // File -> (document key -> content fingerprint) as last ingested
+    private final Map<Path, Map<String, UUID>> ingested = new ConcurrentHashMap<>();
+
+    public WatchCommand(
+            FaqUploaderService uploaderService,
+            @Value("${watch.dir:input}") String directory,
+            @Value("${watch.debounce-ms:500}") long debounceMs,
+            @Value("${watch.max-delay-ms:5000}") long maxDelayMs,
+            @Value("${watch.initial-load:true}") boolean initialLoad
+    ) {
+        this.uploaderService = uploaderService;
+        this.directory = Path.of(directory).toAbsolutePath();
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, debounceMs));
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(debounceMs, maxDelayMs));
+        this.initialLoad = initialLoad;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            watch();
+        } catch (IOException e) {
+            log.error("Cannot watch '{}': {}", directory, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Watches until the calling thread is interrupted.
+     */
+    void watch() throws IOException {
+        Files.createDirectories(directory);
+        try (WatchService watcher = directory.getFileSystem().newWatchService()) {
+            directory.register(watcher,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            log.info("Watching {} for FAQ files (debounce {} ms)", directory, TimeUnit.NANOSECONDS.toMillis(debounceNanos));
+
+            // Registered first, so nothing written during the initial pass is missed
+            if (initialLoad) {
+                ingest(inputFiles());
+            } else {
+                for (Path file : inputFiles()) {
+                    diff(file).ifPresent(changes -> ingested.put(file, changes.fingerprints()));
+                }
+            }
+
+            Set<Path> pending = new LinkedHashSet<>();
+            long firstPending = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watcher.take();
+                } else {
+                    long waitNanos = Math.min(debounceNanos, firstPending + maxDelayNanos - System.nanoTime());
+                    key = waitNanos > 0 ? watcher.poll(waitNanos, TimeUnit.NANOSECONDS) : null;
+                }
+                if (key == null) {
+                    // Quiet for the debounce period, or waited long enough
+                    ingest(pending);
+                    pending.clear();
+                    continue;
+                }
+
+                if (pending.isEmpty()) {
+                    firstPending = System.nanoTime();
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        log.warn("Missed file events in {}; re-checking every file", directory);
+                        pending.addAll(inputFiles());
+                        continue;
+                    }
+                    Path file = directory.resolve((Path) event.context());
+                    if (!isInputFile(file)) {
+                        continue;
+                    }
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        pending.remove(file);
+                        ingested.remove(file);
+                    } else {
+                        pending.add(file);
+                    }
+                }
+                if (!key.reset()) {
+                    log.error("Watch directory {} is no longer accessible; stopping", directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Stopped watching {}", directory);
+    }
+
+    /**
+     * Uploads the changed records of the given files in one batch.
+     */
+    private void ingest(Collection<Path> files) {
+        long start = System.nanoTime();
+        List<FaqInput> changed = new ArrayList<>();
+        Map<Path, Map<String, UUID>> fingerprints = new HashMap<>();
+        for (Path file : files) {
+            diff(file).ifPresent(changes -> {
+                changed.addAll(changes.records());
+                fingerprints.put(file, changes.fingerprints());
+            });
+        }
+        if (changed.isEmpty()) {
+            ingested.putAll(fingerprints);
+            log.debug("No FAQ changes in {}", files);
+            return;
+        }
+
+        UploadProgress progress = uploaderService.uploadFaqs(changed);
+        if (progress.getSucceeded() == progress.getSubmitted()) {
+            ingested.putAll(fingerprints);
+        } else {
+            // Not remembered, so the next event for these files re-sends their records
+            fingerprints.keySet().forEach(ingested::remove);
+        }
+        log.info("Ingested {} changed FAQs from {} file(s) in {} ms: {}",
+                changed.size(), fingerprints.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), progress);
+    }
+
+    /**
+     * Parses the file and returns its records that are new or differ from the last
+     * ingested version, with the fingerprints of all of its records; empty when the
+     * file is gone or cannot be parsed. Records without a key are logged and skipped.
+     */
+    private Optional<FileChanges> diff(Path file) {
+        List<FaqInput> records;
+        try {
+            if (!Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            records = parse(file);
+        } catch (IOException e) {
+            log.warn("Skipping {} until its next change: {}", file.getFileName(), e.getMessage());
+            return Optional.empty();
+        }
+
+        Map<String, UUID> previous = ingested.getOrDefault(file, Map.of());
+        Map<String, UUID> current = new HashMap<>(records.size() * 2);
+        List<FaqInput> changed = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            FaqInput record = records.get(i);
+            String id;
+            try {
+                id = FaqIds.of(record);
+            } catch (RuntimeException e) {
+                // E.g. neither id nor question: fails only this record, as in batch mode
+                log.warn("Skipping record {} of {}: no id or question ({})", i + 1, file.getFileName(), e.toString());
+                continue;
+            }
+            UUID fingerprint = fingerprint(record);
+            current.put(id, fingerprint);
+            if (!fingerprint.equals(previous.get(id))) {
+                changed.add(record);
+            }
+        }
+        return Optional.of(new FileChanges(changed, current));
+    }
+
+    private List<FaqInput> parse(Path file) throws IOException {
+        if (file.getFileName().toString().endsWith(".ndjson")) {
+            try (MappingIterator<FaqInput> lines = mapper.readerFor(FaqInput.class).readValues(file.toFile())) {
+                return lines.readAll();
+            }
+        }
+        return mapper.readValue(file.toFile(), new TypeReference<>() {});
+    }
+
+    private List<Path> inputFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(WatchCommand::isInputFile).sorted().toList();
+        }
+    }
+
+    private static boolean isInputFile(Path file) {
+        String name = file.getFileName().toString();
+        return !name.startsWith(".") && (name.endsWith(".json") || name.endsWith(".ndjson"));
+    }
+
+    private static UUID fingerprint(FaqInput record) {
+        String content = String.join("\u0000",
+                String.valueOf(record.category()),
+                String.valueOf(record.question()),
+                String.valueOf(record.answer()),
+                String.valueOf(record.image()),
+                String.valueOf(record.link()));
+        return UUID.nameUUIDFromBytes(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record FileChanges(List<FaqInput> records, Map<String, UUID> fingerprints) {
+    }
+}
@@ -7,10 +7,12 @@ import com.couchbase.client.java.Scope;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Infrastructure configuration for Couchbase.
@@ -18,8 +20,15 @@ import java.time.Duration;
  * Responsibilities:
  *  - Connect to Couchbase Cluster
  *  - Expose a Collection bean for faq_bucket/faq_scope/faqs
+ *  - Expose CouchbaseReadiness, completed (never failed) once the bucket is ready or the wait timed out
+ *
+ * None of the beans block: the SDK bootstraps in the background, so parsing and
+ * embedding start while the cluster connection is still being established.
+ *
+ * Skipped entirely when exporting to files (uploader.sink=ndjson).
  */
 @Configuration
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
 public class CouchbaseConfig {
 
     private static final Logger log = LogManager.getLogger(CouchbaseConfig.class);
@@ -48,18 +57,34 @@ public class CouchbaseConfig {
     @Bean(destroyMethod = "disconnect")
     public Cluster couchbaseCluster() {
         log.info("Connecting to Couchbase at {}", connectionString);
-        Cluster cluster = Cluster.connect(connectionString, username, password);
-        cluster.waitUntilReady(Duration.ofSeconds(readyTimeoutSeconds));
-        return cluster;
+        // Returns immediately; the SDK keeps bootstrapping in the background
+        return Cluster.connect(connectionString, username, password);
     }
 
     @Bean
     public Collection faqCollection(Cluster cluster) {
         Bucket bucket = cluster.bucket(bucketName);
-        bucket.waitUntilReady(Duration.ofSeconds(readyTimeoutSeconds));
         Scope scope = bucket.scope(scopeName);
         Collection collection = scope.collection(collectionName);
         log.info("Using Couchbase collection {}/{}/{}", bucketName, scopeName, collectionName);
         return collection;
     }
+
+    @Bean
+    public CouchbaseReadiness couchbaseReadiness(Cluster cluster) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> ready = cluster.bucket(bucketName).async()
+                .waitUntilReady(Duration.ofSeconds(readyTimeoutSeconds))
+                .handle((ignored, error) -> {
+                    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                    if (error == null) {
+                        log.info("Couchbase bucket '{}' ready after {} ms", bucketName, elapsedMs);
+                    } else {
+                        log.warn("Couchbase bucket '{}' not ready after {} ms, continuing: {}",
+                                bucketName, elapsedMs, error.toString());
+                    }
+                    return null;
+                });
+        return new CouchbaseReadiness(ready);
+    }
 }
\ No newline at end of file
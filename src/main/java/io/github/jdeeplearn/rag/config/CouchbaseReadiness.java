@@ -0,0 +1,34 @@
+package io.github.jdeeplearn.rag.config;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Completes once the FAQ bucket accepts KV operations.
+ *
+ * Couchbase bootstraps in the background while the application parses input and
+ * generates embeddings; writers wait on this instead of blocking bean creation.
+ * A failed future means the bucket cannot be used, and waiters fail their work
+ * instead of writing (see FaqUploaderService.awaitGate). The bean built by
+ * CouchbaseConfig does not fail it: when the bucket is not ready in time it
+ * completes normally and individual operations report their own errors.
+ */
+public final class CouchbaseReadiness {
+
+    private final CompletableFuture<Void> future;
+
+    public CouchbaseReadiness(CompletableFuture<Void> future) {
+        this.future = future;
+    }
+
+    public static CouchbaseReadiness ready() {
+        return new CouchbaseReadiness(CompletableFuture.completedFuture(null));
+    }
+
+    public CompletableFuture<Void> future() {
+        return future;
+    }
+
+    public boolean isReady() {
+        return future.isDone();
+    }
+}
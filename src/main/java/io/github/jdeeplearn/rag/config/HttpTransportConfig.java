@@ -0,0 +1,43 @@
+package io.github.jdeeplearn.rag.config;
+
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The HttpTransport shared by the embedding client, the vector index manager(s) and
+ * the vector search client, configured from http.*.
+ */
+@Configuration
+public class HttpTransportConfig {
+
+    @Bean(destroyMethod = "close")
+    public HttpTransport httpTransport(
+            @Value("${http.pool.max-connections:64}") int maxConnections,
+            @Value("${http.pool.max-pending:1024}") int maxPending,
+            @Value("${http.pool.pending-timeout-ms:5000}") long pendingTimeoutMs,
+            @Value("${http.pool.max-idle-ms:30000}") long maxIdleMs,
+            @Value("${http.pool.max-life-ms:300000}") long maxLifeMs,
+            @Value("${http.pool.eviction-interval-ms:10000}") long evictionIntervalMs,
+            @Value("${http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${http.compression.responses:true}") boolean gzipResponses,
+            @Value("${http.compression.min-request-bytes:1024}") int minRequestBytesToGzip,
+            @Value("${http.embedding.h2c:false}") boolean embeddingH2c,
+            @Value("${http.embedding.gzip-requests:false}") boolean embeddingGzipRequests
+    ) {
+        return new HttpTransport(new HttpTransport.Settings(
+                maxConnections,
+                maxPending,
+                pendingTimeoutMs,
+                maxIdleMs,
+                maxLifeMs,
+                evictionIntervalMs,
+                connectTimeoutMs,
+                gzipResponses,
+                embeddingH2c,
+                embeddingGzipRequests,
+                minRequestBytesToGzip
+        ));
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.jdeeplearn.rag.config;
+
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.sink.CouchbaseFaqSink;
+import io.github.jdeeplearn.rag.sink.FaqSink;
+import io.github.jdeeplearn.rag.sink.NdjsonFileSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Selects where built FAQ documents go, based on uploader.sink:
+ *  - couchbase (default): KV writes into the configured collection
+ *  - ndjson: partitioned NDJSON export files for offline bulk import
+ */
+@Configuration
+public class SinkConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+    public FaqSink couchbaseFaqSink(CouchbaseFaqRepository repository, CouchbaseReadiness readiness) {
+        return new CouchbaseFaqSink(repository, readiness);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "uploader.sink", havingValue = "ndjson")
+    public FaqSink ndjsonFileSink(
+            @Value("${uploader.export.dir:export}") String directory,
+            @Value("${uploader.export.file-prefix:faqs}") String filePrefix,
+            @Value("${uploader.export.partitions:8}") int partitions,
+            @Value("${uploader.export.buffer-kb:1024}") int bufferKb
+    ) {
+        return new NdjsonFileSink(Path.of(directory), filePrefix, partitions, bufferKb * 1024);
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.jdeeplearn.rag.config;
+
+import com.couchbase.client.java.Cluster;
+import com.couchbase.client.java.Collection;
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.index.VectorSearchIndexManager;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.service.EmbeddingBatcher;
+import io.github.jdeeplearn.rag.service.EmbeddingClient;
+import io.github.jdeeplearn.rag.service.FairScheduler;
+import io.github.jdeeplearn.rag.service.FaqUploaderService;
+import io.github.jdeeplearn.rag.sink.CouchbaseFaqSink;
+import io.github.jdeeplearn.rag.tenant.Tenant;
+import io.github.jdeeplearn.rag.tenant.TenantRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Multi-tenant ingestion, enabled by listing tenant names in uploader.tenants.
+ *
+ * Each tenant is read from uploader.tenant.&lt;name&gt;.*:
+ *  - scope (default spring.data.couchbase.scope-name), collection (default the name)
+ *  - index-name (default &lt;name&gt;_vectors)
+ *  - weight (default 1): share of the workers while several tenants have work
+ *  - input-file: loaded by batch runs (optional)
+ *
+ * All tenants share the Cluster, the HttpTransport, the embedding client/batcher
+ * and one pool of uploader.threads workers (FairScheduler), which the default
+ * collection's FaqUploaderService uses as well. Collections are expected to exist.
+ */
+@Configuration
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+@ConditionalOnExpression("!'${uploader.tenants:}'.isBlank()")
+public class TenantConfig {
+
+    private static final Logger log = LogManager.getLogger(TenantConfig.class);
+
+    @Value("${uploader.tenants}")
+    private String[] tenantNames;
+
+    @Value("${spring.data.couchbase.bucket-name:faq_bucket}")
+    private String bucketName;
+
+    @Value("${spring.data.couchbase.scope-name:faq_scope}")
+    private String defaultScope;
+
+    @Value("${couchbase.durability:none}")
+    private String durability;
+
+    @Value("${couchbase.fts.url:http://localhost:8094}")
+    private String ftsUrl;
+
+    @Value("${spring.couchbase.username:admin}")
+    private String username;
+
+    @Value("${spring.couchbase.password:password}")
+    private String password;
+
+    @Value("${vector.stored-fields:}")
+    private String[] storedFields;
+
+    @Value("${embedding.dim:768}")
+    private int embeddingDim;
+
+    @Value("${vector.stored-dim:0}")
+    private int storedDim;
+
+    @Value("${uploader.change-detection:true}")
+    private boolean changeDetection;
+
+    @Value("${uploader.bootstrap.buffer-size:1000}")
+    private int bootstrapBufferSize;
+
+    @Value("${uploader.max-docs-per-second:0}")
+    private double maxDocsPerSecond;
+
+    @Value("${uploader.progress-interval-ms:10000}")
+    private long progressIntervalMs;
+
+    @Bean(destroyMethod = "close")
+    public FairScheduler ingestionScheduler(@Value("${uploader.threads:4}") int threads) {
+        return new FairScheduler("ingest", threads);
+    }
+
+    /**
+     * Lane the default collection's FaqUploaderService runs on instead of a pool of its own.
+     */
+    @Bean(FaqUploaderService.DEFAULT_LANE_BEAN)
+    public Executor defaultIngestionLane(FairScheduler scheduler) {
+        return scheduler.lane(FaqUploaderService.DEFAULT_LANE, 1);
+    }
+
+    @Bean
+    public TenantRegistry tenantRegistry(
+            Cluster cluster,
+            CouchbaseReadiness readiness,
+            EmbeddingClient embeddingClient,
+            ObjectProvider<EmbeddingBatcher> embeddingBatcher,
+            FairScheduler scheduler,
+            HttpTransport transport,
+            Environment environment,
+            ResourceLoader resourceLoader
+    ) {
+        List<Tenant> tenants = new ArrayList<>();
+        for (String rawName : tenantNames) {
+            String name = rawName.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (name.equals(FaqUploaderService.DEFAULT_LANE)) {
+                throw new IllegalArgumentException("Tenant name '" + name + "' is reserved for the default collection");
+            }
+
+            String prefix = "uploader.tenant." + name + ".";
+            String scope = environment.getProperty(prefix + "scope", defaultScope);
+            String collectionName = environment.getProperty(prefix + "collection", name);
+            String indexName = environment.getProperty(prefix + "index-name", name + "_vectors");
+            double weight = environment.getProperty(prefix + "weight", Double.class, 1.0);
+            String inputFile = environment.getProperty(prefix + "input-file", "");
+
+            Collection collection = cluster.bucket(bucketName).scope(scope).collection(collectionName);
+            VectorSearchIndexManager indexManager = new VectorSearchIndexManager(
+                    ftsUrl, bucketName, scope, collectionName, indexName, embeddingDim, storedDim,
+                    username, password, storedFields, transport);
+            FaqUploaderService uploader = new FaqUploaderService(
+                    embeddingClient,
+                    embeddingBatcher.getIfAvailable(),
+                    new CouchbaseFaqSink(new CouchbaseFaqRepository(collection, durability), readiness),
+                    indexManager,
+                    scheduler.lane(name, weight),
+                    embeddingDim,
+                    storedDim,
+                    0, // threads: runs on the tenant's lane
+                    changeDetection,
+                    bootstrapBufferSize,
+                    maxDocsPerSecond
+            );
+            uploader.setProgressIntervalMs(progressIntervalMs);
+
+            tenants.add(new Tenant(name, weight, scope, collectionName, indexName,
+                    inputFile.isBlank() ? null : resourceLoader.getResource(inputFile), uploader));
+            log.info("Tenant '{}': {}/{}.{}, index '{}', weight {}", name, bucketName, scope, collectionName, indexName, weight);
+        }
+        return new TenantRegistry(tenants);
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.jdeeplearn.rag.http;
+
+import io.netty.channel.ChannelOption;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The one Reactor Netty connection pool and HTTP client setup behind every WebClient
+ * of the loader (embedding replicas, FTS index management, FTS queries), instead of
+ * each client building its own with library defaults.
+ *
+ *  - pool: at most http.pool.max-connections per remote host; at most
+ *    http.pool.max-pending requests wait for a connection, for up to
+ *    http.pool.pending-timeout-ms, so overload fails fast instead of queueing
+ *    without bound
+ *  - idle connections are evicted in the background after http.pool.max-idle-ms
+ *    (before servers and load balancers close them under a request) and every
+ *    connection is replaced after http.pool.max-life-ms; TCP keep-alive is on
+ *  - responses: gzip is accepted and decompressed transparently
+ *    (http.compression.responses)
+ *  - embedding traffic only: HTTP/2 cleartext with prior knowledge (http.embedding.h2c)
+ *    and gzip request bodies from http.compression.min-request-bytes
+ *    (http.embedding.gzip-requests); both need server support. The FTS REST API
+ *    always gets HTTP/1.1 and plain request bodies.
+ *
+ * Pool gauges per remote host are available from stats().
+ */
+public final class HttpTransport implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(HttpTransport.class);
+
+    private static volatile HttpTransport shared;
+
+    /**
+     * Which kind of server a WebClient talks to.
+     */
+    public enum Peer {
+        EMBEDDING,
+        FTS
+    }
+
+    public record Settings(
+            int maxConnections,
+            int maxPending,
+            long pendingTimeoutMs,
+            long maxIdleMs,
+            long maxLifeMs,
+            long evictionIntervalMs,
+            long connectTimeoutMs,
+            boolean gzipResponses,
+            boolean embeddingH2c,
+            boolean embeddingGzipRequests,
+            int minRequestBytesToGzip
+    ) {
+        public static Settings defaults() {
+            return new Settings(64, 1024, 5_000, 30_000, 300_000, 10_000, 2_000, true, false, false, 1024);
+        }
+    }
+
+    /**
+     * Connections to one remote host; "active" are checked out by requests, "pending"
+     * requests wait for one.
+     */
+    public record PoolStats(String remote, int active, int idle, int pending, int maxConnections) {
+    }
+
+    private final Settings settings;
+    private final ConnectionProvider provider;
+    private final HttpClient http11;
+    private final HttpClient embedding;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    private record Pool(SocketAddress remote, ConnectionPoolMetrics metrics) {
+    }
+
+    public HttpTransport(Settings settings) {
+        this.settings = settings;
+        this.provider = ConnectionProvider.builder("faq-loader")
+                .maxConnections(Math.max(1, settings.maxConnections()))
+                .pendingAcquireMaxCount(settings.maxPending() > 0 ? settings.maxPending() : -1)
+                .pendingAcquireTimeout(Duration.ofMillis(settings.pendingTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(settings.maxIdleMs()))
+                .maxLifeTime(Duration.ofMillis(settings.maxLifeMs()))
+                .evictInBackground(Duration.ofMillis(settings.evictionIntervalMs()))
+                .metrics(true, () -> new ConnectionProvider.MeterRegistrar() {
+                    @Override
+                    public void registerMetrics(String poolName, String id, SocketAddress remote,
+                                                ConnectionPoolMetrics metrics) {
+                        pools.put(id, new Pool(remote, metrics));
+                    }
+
+                    @Override
+                    public void deRegisterMetrics(String poolName, String id, SocketAddress remote) {
+                        pools.remove(id);
+                    }
+                })
+                .build();
+
+        HttpClient base = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.connectTimeoutMs())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .compress(settings.gzipResponses());
+        this.http11 = base.protocol(HttpProtocol.HTTP11);
+        this.embedding = settings.embeddingH2c() ? base.protocol(HttpProtocol.H2C) : http11;
+
+        log.info("HTTP transport: max-connections={} per host, max-pending={}, max-idle={} ms, "
+                        + "gzip responses={}, embedding h2c={}, embedding gzip requests={}",
+                settings.maxConnections(), settings.maxPending(), settings.maxIdleMs(),
+                settings.gzipResponses(), settings.embeddingH2c(), settings.embeddingGzipRequests());
+    }
+
+    /**
+     * Transport with default settings for clients built outside Spring (tests, tools).
+     * Created on first use and never closed.
+     */
+    public static HttpTransport shared() {
+        HttpTransport transport = shared;
+        if (transport == null) {
+            synchronized (HttpTransport.class) {
+                transport = shared;
+                if (transport == null) {
+                    transport = new HttpTransport(Settings.defaults());
+                    shared = transport;
+                }
+            }
+        }
+        return transport;
+    }
+
+    /**
+     * WebClient builder for the given server, on the shared pool.
+     */
+    public WebClient.Builder webClient(Peer peer, String baseUrl) {
+        WebClient.Builder builder = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(peer == Peer.EMBEDDING ? embedding : http11));
+        if (peer == Peer.EMBEDDING && settings.embeddingGzipRequests()) {
+            builder.filter(new GzipRequestFilter(settings.minRequestBytesToGzip()));
+        }
+        return builder;
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    /**
+     * Current pool gauges, one entry per remote host (and protocol) in use.
+     */
+    public List<PoolStats> stats() {
+        return pools.values().stream()
+                .map(pool -> new PoolStats(String.valueOf(pool.remote()),
+                        pool.metrics().acquiredSize(),
+                        pool.metrics().idleSize(),
+                        pool.metrics().pendingAcquireSize(),
+                        pool.metrics().maxAllocatedSize()))
+                .sorted(Comparator.comparing(PoolStats::remote))
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        provider.disposeLater().block(Duration.ofSeconds(10));
+    }
+}
@@ -1,7 +1,12 @@
 package io.github.jdeeplearn.rag.index;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.jfr.IndexEnsureEvent;
+import io.github.jdeeplearn.rag.service.VectorTruncation;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -11,7 +16,11 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunctions;
 import reactor.core.publisher.Mono;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class VectorSearchIndexManager {
@@ -23,8 +32,17 @@ public class VectorSearchIndexManager {
     private final String bucketName;
     private final String scopeName;
     private final String collectionName;
-    private final int embeddingDim;
+    private final int indexDim;
+    private final Set<String> storedFields;
+    private final String username;
 
+    /**
+     * @param storedDim    vector.stored-dim: the index is sized for the stored (possibly
+     *                     truncated) vectors, not the model output
+     * @param storedFields text fields whose values are stored in the index, so search hits
+     *                     can return them without a KV fetch (larger index, fewer reads)
+     */
+    @Autowired
     public VectorSearchIndexManager(
             @Value("${couchbase.fts.url:http://localhost:8094}") String ftsUrl,
             @Value("${spring.data.couchbase.bucket-name:faq_bucket}") String bucketName,
@@ -32,21 +50,32 @@ public class VectorSearchIndexManager {
             @Value("${uploader.collection:faqs}") String collectionName,
             @Value("${vector.index-name:faq_vectors}") String indexName,
             @Value("${embedding.dim:1024}") int embeddingDim,
+            @Value("${vector.stored-dim:0}") int storedDim,
             @Value("${spring.couchbase.username:admin}") String username,
-            @Value("${spring.couchbase.password:password}") String password
+            @Value("${spring.couchbase.password:password}") String password,
+            @Value("${vector.stored-fields:}") String[] storedFields,
+            HttpTransport transport
     ) {
-        this.webClient = WebClient.builder()
-                .baseUrl(ftsUrl)
+        this.webClient = transport.webClient(HttpTransport.Peer.FTS, ftsUrl)
                 .filter(ExchangeFilterFunctions.basicAuthentication(username, password))
                 .build();
+        this.username = username;
         this.bucketName = bucketName;
         this.scopeName = scopeName;
         this.collectionName = collectionName;
         this.indexName = indexName;
-        this.embeddingDim = embeddingDim;
+        this.indexDim = VectorTruncation.storedDim(embeddingDim, storedDim);
+        this.storedFields = Arrays.stream(storedFields)
+                .map(String::trim)
+                .filter(f -> !f.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
     }
 
-    public void ensureIndex() {
+    /**
+     * Creates or updates the FTS vector index. Failures are logged; returns whether the
+     * index exists afterwards, so callers can retry later.
+     */
+    public boolean ensureIndex() {
         String fqCollection = scopeName + "." + collectionName;
         String path = "/api/index/" + indexName;
 
@@ -87,16 +116,17 @@ public class VectorSearchIndexManager {
                                                                         Map.of(
                                                                                 "name", "question_vector",
                                                                                 "type", "vector",
-                                                                                "dims", embeddingDim,
+                                                                                "dims", indexDim,
                                                                                 "similarity", "cosine"
                                                                         )
                                                                 }
                                                         ),
-                                                        "question", Map.of("enabled", true),
-                                                        "answer", Map.of("enabled", true),
-                                                        "category", Map.of("enabled", true),
-                                                        "image", Map.of("enabled", true),
-                                                        "link", Map.of("enabled", true)
+                                                        "question", textField("question", "standard"),
+                                                        "answer", textField("answer", "standard"),
+                                                        // Exact-match keyword: usable as a KNN prefilter
+                                                        "category", textField("category", "keyword"),
+                                                        "image", textField("image", "standard"),
+                                                        "link", textField("link", "standard")
                                                 )
                                         )
                                 )
@@ -108,8 +138,11 @@ public class VectorSearchIndexManager {
                 "sourceParams", Map.of()
         );
 
-        log.info("Ensuring FTS vector index '{}' with basic auth user='admin'", indexName);
+        log.info("Ensuring FTS vector index '{}' with basic auth user='{}', stored fields {}",
+                indexName, username, storedFields);
 
+        IndexEnsureEvent event = new IndexEnsureEvent();
+        event.begin();
         try {
             String responseBody = webClient.put()
                     .uri(path)
@@ -117,14 +150,17 @@ public class VectorSearchIndexManager {
                     .bodyValue(payload)
                     .exchangeToMono(response -> {
                         HttpStatusCode status = response.statusCode();
+                        event.httpStatus = status.value();
                         return response.bodyToMono(String.class)
                                 .flatMap(body -> {
                                     if (status.is2xxSuccessful()) {
                                         log.info("FTS index '{}' created/updated successfully", indexName);
+                                        event.outcome = "created";
                                         return Mono.just(body);
                                     }
                                     if (status == HttpStatus.BAD_REQUEST && body.contains("already exists")) {
                                         log.info("FTS index '{}' already exists, skipping creation.", indexName);
+                                        event.outcome = "exists";
                                         return Mono.empty();
                                     }
                                     log.error("FTS index '{}' creation failed (status={}): {}", indexName, status, body);
@@ -137,9 +173,113 @@ public class VectorSearchIndexManager {
             if (responseBody != null) {
                 log.debug("ensureIndex response body: {}", responseBody);
             }
+            return true;
 
         } catch (Exception e) {
+            event.outcome = "failed";
             log.error("Unexpected error ensuring FTS index '{}': {}", indexName, e.toString(), e);
+            return false;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.indexName = indexName;
+                event.dimensions = indexDim;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Number of documents the given index has ingested so far.
+     */
+    public long documentCount(String index) {
+        JsonNode response = webClient.get()
+                .uri("/api/index/{name}/count", index)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block();
+        if (response == null || !response.has("count")) {
+            throw new IllegalStateException("No count returned for FTS index '" + index + "'");
+        }
+        return response.get("count").asLong();
+    }
+
+    /**
+     * Current targets of an index alias; empty if the alias does not exist yet.
+     */
+    public Set<String> aliasTargets(String alias) {
+        JsonNode definition = indexDefinition(alias);
+        if (definition == null) {
+            return Set.of();
         }
+        Set<String> targets = new LinkedHashSet<>();
+        definition.path("params").path("targets").fieldNames().forEachRemaining(targets::add);
+        return targets;
+    }
+
+    /**
+     * Creates the alias or repoints it to exactly one target index. The alias definition
+     * is replaced in a single update, so queries see either the old or the new target.
+     */
+    public void pointAlias(String alias, String targetIndex) {
+        JsonNode existing = indexDefinition(alias);
+        Map<String, Object> payload = Map.of(
+                "type", "fulltext-alias",
+                "name", alias,
+                "sourceType", "nil",
+                "params", Map.of("targets", Map.of(targetIndex, Map.of()))
+        );
+
+        webClient.put()
+                .uri(builder -> {
+                    builder.path("/api/index/{name}");
+                    if (existing != null) {
+                        // Required to update an existing definition instead of failing with "already exists"
+                        builder.queryParam("prevIndexUUID", existing.path("uuid").asText());
+                    }
+                    return builder.build(alias);
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload)
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+        log.info("FTS alias '{}' now points to '{}'", alias, targetIndex);
+    }
+
+    public void deleteIndex(String index) {
+        webClient.delete()
+                .uri("/api/index/{name}", index)
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+        log.info("Deleted FTS index '{}'", index);
+    }
+
+    private JsonNode indexDefinition(String name) {
+        JsonNode response = webClient.get()
+                .uri("/api/index/{name}", name)
+                .exchangeToMono(r -> r.statusCode().is2xxSuccessful()
+                        ? r.bodyToMono(JsonNode.class)
+                        // FTS answers 400 (older releases) or 404 for unknown indexes
+                        : r.releaseBody().then(Mono.<JsonNode>empty()))
+                .block();
+        return response == null ? null : response.get("indexDef");
+    }
+
+    private Map<String, Object> textField(String name, String analyzer) {
+        return Map.of(
+                "enabled", true,
+                "dynamic", false,
+                "fields", new Object[]{
+                        Map.of(
+                                "name", name,
+                                "type", "text",
+                                "analyzer", analyzer,
+                                "index", true,
+                                "store", storedFields.contains(name)
+                        )
+                }
+        );
     }
 }
@@ -0,0 +1,50 @@
+package io.github.jdeeplearn.rag.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * One call to the embedding service. Only calls slower than the threshold are
+ * recorded by default, which keeps always-on recordings small.
+ */
+@Name("io.github.jdeeplearn.rag.Embedding")
+@Label("Embedding Request")
+@Category({"FAQ Loader", "Embedding"})
+@Description("HTTP call to the /embed endpoint")
+@Threshold("20 ms")
+@StackTrace(false)
+public class EmbeddingEvent extends Event {
+
+    @Label("Record ID")
+    @Description("Key of the FAQ being embedded, if known")
+    public String recordId;
+
+    @Label("Model")
+    public String model;
+
+    @Label("Batch Size")
+    public int batchSize;
+
+    @Label("Input Characters")
+    public long inputChars;
+
+    @Label("Dimensions")
+    public int dimensions;
+
+    @Label("HTTP Status")
+    @Description("0 when no response was received (e.g. timeout)")
+    public int httpStatus;
+
+    @Label("Timeout")
+    @Timespan(Timespan.MILLISECONDS)
+    public long timeoutMs;
+
+    @Label("Error")
+    public String error;
+}
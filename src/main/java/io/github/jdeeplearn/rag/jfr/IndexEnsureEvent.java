@@ -0,0 +1,33 @@
+package io.github.jdeeplearn.rag.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Creation (or confirmation) of the FTS vector index.
+ */
+@Name("io.github.jdeeplearn.rag.IndexEnsure")
+@Label("Vector Index Ensure")
+@Category({"FAQ Loader", "Couchbase"})
+@Description("PUT of the FTS vector index definition")
+@StackTrace(false)
+public class IndexEnsureEvent extends Event {
+
+    @Label("Index")
+    public String indexName;
+
+    @Label("Dimensions")
+    public int dimensions;
+
+    @Label("HTTP Status")
+    @Description("0 when no response was received")
+    public int httpStatus;
+
+    @Label("Outcome")
+    @Description("created, exists or failed")
+    public String outcome;
+}
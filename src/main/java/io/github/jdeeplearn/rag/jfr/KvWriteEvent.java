@@ -0,0 +1,45 @@
+package io.github.jdeeplearn.rag.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One FAQ document write to Couchbase, including a durability fallback retry if one
+ * was needed.
+ */
+@Name("io.github.jdeeplearn.rag.KvWrite")
+@Label("FAQ KV Write")
+@Category({"FAQ Loader", "Couchbase"})
+@Description("Insert, upsert or sub-document update (mutateIn) of an FAQ document")
+@Threshold("5 ms")
+@StackTrace(false)
+public class KvWriteEvent extends Event {
+
+    @Label("Record ID")
+    public String recordId;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Durability")
+    @Description("Requested durability level")
+    public String durability;
+
+    @Label("Durability Fallback")
+    @Description("Retried with durability NONE after DurabilityImpossibleException")
+    public boolean fallback;
+
+    @Label("Size")
+    @Description("Encoded document; for mutateIn, the patched field values")
+    @DataAmount
+    public long bytes;
+
+    @Label("Error")
+    public String error;
+}
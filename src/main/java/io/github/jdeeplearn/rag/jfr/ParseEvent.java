@@ -0,0 +1,33 @@
+package io.github.jdeeplearn.rag.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parsing of one FAQ input file into records.
+ */
+@Name("io.github.jdeeplearn.rag.Parse")
+@Label("FAQ Input Parse")
+@Category({"FAQ Loader", "Input"})
+@Description("Reading and deserializing an FAQ input file")
+@StackTrace(false)
+public class ParseEvent extends Event {
+
+    @Label("Source")
+    public String source;
+
+    @Label("Records")
+    public int records;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
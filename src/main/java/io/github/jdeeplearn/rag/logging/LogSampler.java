@@ -0,0 +1,56 @@
+package io.github.jdeeplearn.rag.logging;
+
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thins out per-record log lines on hot paths (one line per FAQ adds up at tens of
+ * thousands of FAQs per second).
+ *
+ * shouldLog(log) lets the first and then every n-th debug line through, and every
+ * line at TRACE; with DEBUG disabled it costs a level check and no counter update:
+ * <pre>
+ *   if (sampler.shouldLog(log)) log.debug(...);
+ * </pre>
+ * sample() does the same for lines that are always on, e.g. repeated warnings.
+ * Errors are never meant to go through a sampler.
+ */
+public final class LogSampler {
+
+    public static final long DEFAULT_EVERY = 1000;
+
+    private final long every;
+    private final AtomicLong calls = new AtomicLong();
+
+    public LogSampler() {
+        this(DEFAULT_EVERY);
+    }
+
+    public LogSampler(long every) {
+        this.every = Math.max(1, every);
+    }
+
+    public boolean shouldLog(Logger log) {
+        if (log.isTraceEnabled()) {
+            calls.incrementAndGet();
+            return true;
+        }
+        return log.isDebugEnabled() && sample();
+    }
+
+    public boolean sample() {
+        return calls.getAndIncrement() % every == 0;
+    }
+
+    /**
+     * Calls so far, logged or not.
+     */
+    public long count() {
+        return calls.get();
+    }
+
+    public long every() {
+        return every;
+    }
+}
@@ -59,15 +59,38 @@ public final class FaqDocument {
             String similarity,
             String source,
             String contentVersion
+    ) {
+        return of(id, category, question, answer, image, link, vector, provider, modelName, modelDim, modelDim,
+                similarity, source, contentVersion);
+    }
+
+    /**
+     * As above, for a vector truncated from modelDim to its first storedDim components.
+     */
+    public static FaqDocument of(
+            String id,
+            String category,
+            String question,
+            String answer,
+            String image,
+            String link,
+            float[] vector,
+            String provider,
+            String modelName,
+            int modelDim,
+            int storedDim,
+            String similarity,
+            String source,
+            String contentVersion
     ) {
         Objects.requireNonNull(id, "id must not be null");
         Objects.requireNonNull(question, "question must not be null");
         Objects.requireNonNull(answer, "answer must not be null");
         Objects.requireNonNull(vector, "vector must not be null");
 
-        if (vector.length != modelDim) {
+        if (vector.length != storedDim) {
             throw new IllegalArgumentException(
-                    "Embedding dimension mismatch: expected " + modelDim + ", got " + vector.length
+                    "Embedding dimension mismatch: expected " + storedDim + ", got " + vector.length
             );
         }
 
@@ -77,6 +100,7 @@ public final class FaqDocument {
         meta.put("provider", provider);
         meta.put("model_name", modelName);
         meta.put("model_dim", modelDim);
+        meta.put("stored_dim", storedDim);
         meta.put("similarity", similarity);
         meta.put("source", source);
         meta.put("content_version", contentVersion);
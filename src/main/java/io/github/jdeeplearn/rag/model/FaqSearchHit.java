@@ -0,0 +1,14 @@
+package io.github.jdeeplearn.rag.model;
+
+/**
+ * One semantic search result: the matched FAQ with its KNN similarity score.
+ */
+public record FaqSearchHit(
+        String id,
+        double score,
+        String category,
+        String question,
+        String answer,
+        String image,
+        String link
+) {}
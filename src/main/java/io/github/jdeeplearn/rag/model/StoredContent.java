@@ -0,0 +1,21 @@
+package io.github.jdeeplearn.rag.model;
+
+/**
+ * Text fields, embedding model and question_vector summary of a stored FAQ
+ * document, as read by load verification. The vector itself is not kept.
+ *
+ * @param vectorDim    number of vector components (0 without a vector)
+ * @param vectorNorm   L2 norm of the vector
+ * @param vectorFinite false if any component is NaN or infinite
+ */
+public record StoredContent(
+        String category,
+        String question,
+        String answer,
+        String image,
+        String link,
+        String modelName,
+        int vectorDim,
+        double vectorNorm,
+        boolean vectorFinite
+) {}
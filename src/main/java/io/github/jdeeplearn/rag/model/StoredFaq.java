@@ -0,0 +1,22 @@
+package io.github.jdeeplearn.rag.model;
+
+/**
+ * Text fields of an FAQ document as currently stored, without its vector.
+ * Used to decide whether a source record needs re-embedding, a partial update, or nothing.
+ * storedDim is the length of the stored vector (0 if unknown).
+ */
+public record StoredFaq(
+        String id,
+        String category,
+        String question,
+        String answer,
+        String image,
+        String link,
+        String modelName,
+        int storedDim
+) {
+    public StoredFaq(String id, String category, String question, String answer, String image, String link,
+                     String modelName) {
+        this(id, category, question, answer, image, link, modelName, 0);
+    }
+}
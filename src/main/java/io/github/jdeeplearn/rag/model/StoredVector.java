@@ -0,0 +1,6 @@
+package io.github.jdeeplearn.rag.model;
+
+/**
+ * Key and question_vector of a stored FAQ document, as read by vector snapshots.
+ */
+public record StoredVector(String id, float[] vector) {}
@@ -0,0 +1,42 @@
+package io.github.jdeeplearn.rag.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Subset of the FTS query response used for KNN search.
+ *
+ * Example response:
+ * {
+ *   "status": { "total": 1, "failed": 0, "successful": 1 },
+ *   "hits": [ { "index": "faq_vectors_...", "id": "faq-...", "score": 0.87,
+ *              "fields": { "question": "...", "answer": "..." } } ],
+ *   "total_hits": 3,
+ *   "took": 1843210
+ * }
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record VectorSearchResponse(
+        List<Hit> hits,
+        @JsonProperty("total_hits") long totalHits
+) {
+
+    /**
+     * "fields" is only present when requested and stored in the index.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Hit(String id, double score, Map<String, Object> fields) {
+
+        public String field(String name) {
+            Object value = fields == null ? null : fields.get(name);
+            // Multi-valued fields come back as arrays
+            if (value instanceof List<?> values) {
+                value = values.isEmpty() ? null : values.get(0);
+            }
+            return value == null ? null : value.toString();
+        }
+    }
+}
@@ -1,20 +1,46 @@
 package io.github.jdeeplearn.rag.repository;
 
 import com.couchbase.client.core.error.CouchbaseException;
+import com.couchbase.client.core.error.DocumentNotFoundException;
 import com.couchbase.client.core.error.DurabilityImpossibleException;
 import com.couchbase.client.core.msg.kv.DurabilityLevel;
 import com.couchbase.client.java.Collection;
-import com.couchbase.client.java.json.JsonArray;
-import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.codec.RawJsonTranscoder;
+import com.couchbase.client.java.kv.GetOptions;
+import com.couchbase.client.java.kv.GetResult;
 import com.couchbase.client.java.kv.InsertOptions;
+import com.couchbase.client.java.kv.LookupInResult;
+import com.couchbase.client.java.kv.LookupInSpec;
+import com.couchbase.client.java.kv.MutateInOptions;
+import com.couchbase.client.java.kv.MutateInSpec;
+import com.couchbase.client.java.kv.RemoveOptions;
+import com.couchbase.client.java.kv.ScanOptions;
+import com.couchbase.client.java.kv.ScanResult;
+import com.couchbase.client.java.kv.ScanTerm;
+import com.couchbase.client.java.kv.ScanType;
+import com.couchbase.client.java.kv.UpsertOptions;
+import io.github.jdeeplearn.rag.jfr.KvWriteEvent;
+import io.github.jdeeplearn.rag.logging.LogSampler;
 import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.model.StoredFaq;
+import io.github.jdeeplearn.rag.model.StoredVector;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for persisting FAQ documents to Couchbase.
@@ -23,14 +49,35 @@ import java.util.Objects;
  * NONE, MAJORITY, MAJORITY_AND_PERSIST_TO_ACTIVE, PERSIST_TO_MAJORITY.
  * <p>
  * For local / single-node clusters, use NONE to avoid DurabilityImpossibleException.
+ * <p>
+ * Documents are encoded once by FaqJsonEncoder and stored as raw JSON bytes,
+ * so no intermediate JsonObject tree is built per write.
  */
 @Repository
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
 public class CouchbaseFaqRepository {
 
     private static final Logger log = LogManager.getLogger(CouchbaseFaqRepository.class);
 
+    // Everything change detection compares; question_vector is deliberately not fetched
+    private static final List<LookupInSpec> STORED_FIELD_SPECS = List.of(
+            LookupInSpec.get("category"),
+            LookupInSpec.get("question"),
+            LookupInSpec.get("answer"),
+            LookupInSpec.get("image"),
+            LookupInSpec.get("link"),
+            LookupInSpec.get("meta.model_name"),
+            LookupInSpec.get("meta.stored_dim"),
+            // Documents written before vector.stored-dim only have model_dim
+            LookupInSpec.get("meta.model_dim")
+    );
+
     private final Collection collection;
     private final DurabilityLevel durabilityLevel;
+    // Per-document success lines are sampled debug output; errors are always logged
+    private final LogSampler sampledWrites = new LogSampler();
+    // On single-node clusters every write falls back; warn on the first and every n-th
+    private final LogSampler sampledFallbacks = new LogSampler();
 
     public CouchbaseFaqRepository(
             Collection collection,
@@ -58,6 +105,7 @@ public class CouchbaseFaqRepository {
     /**
      * Insert a single FAQ document with enhanced durability if possible.
      * Falls back to DurabilityLevel.NONE if the cluster cannot satisfy the requested level.
+     * A write that still fails is logged and its exception rethrown, so callers can count it.
      */
     public void insertFaq(FaqDocument doc) {
         if (doc == null) {
@@ -65,56 +113,306 @@ public class CouchbaseFaqRepository {
             return;
         }
 
-        JsonArray vectorArray = JsonArray.create();
-
-        for (var v : doc.getQuestionVector()) {
-            vectorArray.add(v);
-        }
-
-        JsonObject content = JsonObject.create()
-                .put("type", doc.getType())
-                .put("category", doc.getCategory())
-                .put("question", doc.getQuestion())
-                .put("answer", doc.getAnswer())
-                .put("image", doc.getImage())
-                .put("link", doc.getLink())
-                .put("question_vector", vectorArray)
-                .put("meta", JsonObject.from(doc.getMeta()));
+        // Exact-size copy of the per-thread buffer: the SDK may still hold the
+        // request (e.g. after a timeout) once the blocking call returns.
+        byte[] content = FaqJsonEncoder.toBytes(doc);
 
+        KvWriteEvent event = new KvWriteEvent();
+        event.begin();
         try {
             collection.insert(
                     doc.getId(),
                     content,
                     InsertOptions.insertOptions()
                             .durability(durabilityLevel)
+                            .transcoder(RawJsonTranscoder.INSTANCE)
             );
-            log.info("Inserted FAQ [{}] with durability={}", doc.getId(), durabilityLevel);
+            if (sampledWrites.shouldLog(log)) {
+                log.debug("Inserted FAQ [{}] with durability={}", doc.getId(), durabilityLevel);
+            }
 
         } catch (DurabilityImpossibleException e) {
             // Typical on single-node dev/local clusters when durability != NONE
-            log.warn("DurabilityImpossible for id='{}' (requested={}), retrying with DurabilityLevel.NONE",
-                    doc.getId(), durabilityLevel);
-            retryInsertWithoutDurability(doc, content);
+            warnDurabilityFallback(doc.getId());
+            event.fallback = true;
+            retryInsertWithoutDurability(doc, content, event);
 
         } catch (CouchbaseException e) {
-            log.error("Couchbase error inserting [{}]: {}", doc.getId(), e.toString(), e);
+            event.error = e.toString();
+            log.error("Couchbase error inserting [{}]: {}", doc.getId(), e.toString());
+            throw e;
 
         } catch (Exception e) {
-            log.error("Unexpected error inserting [{}]: {}", doc.getId(), e.toString(), e);
+            event.error = e.toString();
+            log.error("Unexpected error inserting [{}]: {}", doc.getId(), e.toString());
+            throw e;
+
+        } finally {
+            commit(event, "insert", doc.getId(), content.length);
         }
     }
 
-    private void retryInsertWithoutDurability(FaqDocument doc, JsonObject content) {
+    private void retryInsertWithoutDurability(FaqDocument doc, byte[] content, KvWriteEvent event) {
         try {
             collection.insert(
                     doc.getId(),
                     content,
                     InsertOptions.insertOptions()
                             .durability(DurabilityLevel.NONE)
+                            .transcoder(RawJsonTranscoder.INSTANCE)
             );
-            log.info("Re-inserted FAQ [{}] with durability=NONE", doc.getId());
+            if (sampledWrites.shouldLog(log)) {
+                log.debug("Re-inserted FAQ [{}] with durability=NONE", doc.getId());
+            }
         } catch (Exception ex) {
-            log.error("Retry insert failed for [{}]: {}", doc.getId(), ex.toString(), ex);
+            event.error = ex.toString();
+            log.error("Retry insert failed for [{}]: {}", doc.getId(), ex.toString());
+            throw ex;
+        }
+    }
+
+    /**
+     * Insert or fully replace a FAQ document, e.g. after its question was re-embedded.
+     * Same durability fallback and failure handling as insertFaq.
+     */
+    public void upsertFaq(FaqDocument doc) {
+        if (doc == null) {
+            log.warn("Skipped upsert for null FAQ document");
+            return;
+        }
+
+        byte[] content = FaqJsonEncoder.toBytes(doc);
+
+        KvWriteEvent event = new KvWriteEvent();
+        event.begin();
+        try {
+            upsert(doc.getId(), content, durabilityLevel);
+            if (sampledWrites.shouldLog(log)) {
+                log.debug("Upserted FAQ [{}] with durability={}", doc.getId(), durabilityLevel);
+            }
+
+        } catch (DurabilityImpossibleException e) {
+            warnDurabilityFallback(doc.getId());
+            event.fallback = true;
+            try {
+                upsert(doc.getId(), content, DurabilityLevel.NONE);
+                if (sampledWrites.shouldLog(log)) {
+                    log.debug("Re-upserted FAQ [{}] with durability=NONE", doc.getId());
+                }
+            } catch (Exception ex) {
+                event.error = ex.toString();
+                log.error("Retry upsert failed for [{}]: {}", doc.getId(), ex.toString());
+                throw ex;
+            }
+
+        } catch (CouchbaseException e) {
+            event.error = e.toString();
+            log.error("Couchbase error upserting [{}]: {}", doc.getId(), e.toString());
+            throw e;
+
+        } catch (Exception e) {
+            event.error = e.toString();
+            log.error("Unexpected error upserting [{}]: {}", doc.getId(), e.toString());
+            throw e;
+
+        } finally {
+            commit(event, "upsert", doc.getId(), content.length);
+        }
+    }
+
+    /**
+     * Read the stored text fields of a FAQ with a single sub-document lookup,
+     * without transferring question_vector.
+     */
+    public Optional<StoredFaq> findStored(String id) {
+        try {
+            return Optional.of(toStoredFaq(id, collection.lookupIn(id, STORED_FIELD_SPECS)));
+        } catch (DocumentNotFoundException e) {
+            return Optional.empty();
         }
     }
+
+    /**
+     * Read the stored text fields of many FAQs with concurrent sub-document lookups
+     * (at most "concurrency" in flight). Missing or failed keys are left out of the result.
+     */
+    public Map<String, StoredFaq> findStored(List<String> ids, int concurrency) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, StoredFaq> found = Flux.fromIterable(ids)
+                .flatMap(id -> collection.reactive().lookupIn(id, STORED_FIELD_SPECS)
+                        .map(result -> toStoredFaq(id, result))
+                        .onErrorResume(e -> {
+                            if (!(e instanceof DocumentNotFoundException)) {
+                                log.error("Couchbase error reading [{}]: {}", id, e.toString());
+                            }
+                            return Mono.empty();
+                        }), concurrency)
+                .collectMap(StoredFaq::id)
+                .block();
+        return found != null ? found : Map.of();
+    }
+
+    /**
+     * Raw JSON body of one document, empty when it does not exist. Non-blocking, so
+     * callers can keep many reads in flight (e.g. load verification).
+     */
+    public Mono<byte[]> readRaw(String id) {
+        return collection.reactive()
+                .get(id, GetOptions.getOptions().transcoder(RawJsonTranscoder.INSTANCE))
+                .map(GetResult::contentAsBytes)
+                .onErrorResume(DocumentNotFoundException.class, e -> Mono.empty());
+    }
+
+    /**
+     * Streams the key of every document in the collection with a KV range scan
+     * (keys only), so neither a primary index nor the query service is needed.
+     * The stream holds scan streams open on the cluster until it is closed.
+     */
+    public Stream<String> scanIds() {
+        // No bounds: the whole collection
+        return collection.scan(ScanType.rangeScan(null, null), ScanOptions.scanOptions().idsOnly(true))
+                .map(ScanResult::id);
+    }
+
+    /**
+     * Streams the key and question_vector of every document in the key range
+     * [fromInclusive, toExclusive) with a KV range scan; a null bound is open.
+     * Bodies are read as raw bytes and only the vector is parsed. Documents without
+     * a vector are left out. Close the stream when done.
+     */
+    public Stream<StoredVector> scanVectors(String fromInclusive, String toExclusive) {
+        ScanType range = ScanType.rangeScan(
+                fromInclusive != null ? ScanTerm.inclusive(fromInclusive) : null,
+                toExclusive != null ? ScanTerm.exclusive(toExclusive) : null
+        );
+        return collection.scan(range, ScanOptions.scanOptions().transcoder(RawJsonTranscoder.INSTANCE))
+                .map(result -> new StoredVector(result.id(), FaqJsonEncoder.readQuestionVector(result.contentAsBytes())))
+                .filter(stored -> stored.vector() != null);
+    }
+
+    /**
+     * Remove the given documents with at most "concurrency" removals in flight.
+     * Returns how many were removed; keys that are already gone are skipped and other
+     * failures are logged. Same durability fallback as insertFaq.
+     */
+    public long removeAll(List<String> ids, int concurrency) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Long removed = Flux.fromIterable(ids)
+                .flatMap(id -> collection.reactive()
+                        .remove(id, RemoveOptions.removeOptions().durability(durabilityLevel))
+                        .onErrorResume(DurabilityImpossibleException.class, e -> collection.reactive()
+                                .remove(id, RemoveOptions.removeOptions().durability(DurabilityLevel.NONE)))
+                        .thenReturn(1L)
+                        .onErrorResume(e -> {
+                            if (!(e instanceof DocumentNotFoundException)) {
+                                log.error("Couchbase error removing [{}]: {}", id, e.toString());
+                            }
+                            return Mono.just(0L);
+                        }), concurrency)
+                .reduce(0L, Long::sum)
+                .block();
+        return removed != null ? removed : 0;
+    }
+
+    /**
+     * Overwrite selected top-level text fields with sub-document mutations and bump
+     * meta.indexed_at. The question and its vector are left untouched.
+     * Same durability fallback and failure handling as insertFaq.
+     */
+    public void updateFields(String id, Map<String, String> fields) {
+        List<MutateInSpec> specs = new ArrayList<>(fields.size() + 1);
+        long bytes = 0;
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            specs.add(MutateInSpec.upsert(field.getKey(), field.getValue()));
+            bytes += field.getValue() == null ? 0 : field.getValue().getBytes(StandardCharsets.UTF_8).length;
+        }
+        specs.add(MutateInSpec.upsert("meta.indexed_at", Instant.now().toString()));
+
+        KvWriteEvent event = new KvWriteEvent();
+        event.begin();
+        try {
+            collection.mutateIn(id, specs, MutateInOptions.mutateInOptions().durability(durabilityLevel));
+            if (sampledWrites.shouldLog(log)) {
+                log.debug("Updated FAQ [{}] fields {} with durability={}", id, fields.keySet(), durabilityLevel);
+            }
+
+        } catch (DurabilityImpossibleException e) {
+            warnDurabilityFallback(id);
+            event.fallback = true;
+            try {
+                collection.mutateIn(id, specs, MutateInOptions.mutateInOptions().durability(DurabilityLevel.NONE));
+                if (sampledWrites.shouldLog(log)) {
+                    log.debug("Re-updated FAQ [{}] with durability=NONE", id);
+                }
+            } catch (Exception ex) {
+                event.error = ex.toString();
+                log.error("Retry update failed for [{}]: {}", id, ex.toString());
+                throw ex;
+            }
+
+        } catch (CouchbaseException e) {
+            event.error = e.toString();
+            log.error("Couchbase error updating [{}]: {}", id, e.toString());
+            throw e;
+
+        } catch (Exception e) {
+            event.error = e.toString();
+            log.error("Unexpected error updating [{}]: {}", id, e.toString());
+            throw e;
+
+        } finally {
+            commit(event, "mutateIn", id, bytes);
+        }
+    }
+
+    private void warnDurabilityFallback(String id) {
+        if (sampledFallbacks.sample()) {
+            log.warn("DurabilityImpossible for id='{}' (requested={}), retrying with DurabilityLevel.NONE "
+                    + "({} fallbacks so far, 1 in {} logged)", id, durabilityLevel, sampledFallbacks.count(),
+                    sampledFallbacks.every());
+        }
+    }
+
+    private void upsert(String id, byte[] content, DurabilityLevel durability) {
+        collection.upsert(
+                id,
+                content,
+                UpsertOptions.upsertOptions()
+                        .durability(durability)
+                        .transcoder(RawJsonTranscoder.INSTANCE)
+        );
+    }
+
+    private void commit(KvWriteEvent event, String operation, String id, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.recordId = id;
+            event.operation = operation;
+            event.durability = durabilityLevel.name();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    private static StoredFaq toStoredFaq(String id, LookupInResult result) {
+        return new StoredFaq(
+                id,
+                stringAt(result, 0),
+                stringAt(result, 1),
+                stringAt(result, 2),
+                stringAt(result, 3),
+                stringAt(result, 4),
+                stringAt(result, 5),
+                result.exists(6) ? result.contentAs(6, Integer.class)
+                        : result.exists(7) ? result.contentAs(7, Integer.class) : 0
+        );
+    }
+
+    private static String stringAt(LookupInResult result, int index) {
+        return result.exists(index) ? result.contentAs(index, String.class) : null;
+    }
 }
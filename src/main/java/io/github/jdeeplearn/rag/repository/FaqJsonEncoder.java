@@ -0,0 +1,213 @@
+package io.github.jdeeplearn.rag.repository;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.model.StoredContent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Streams a FaqDocument straight to JSON bytes with a Jackson JsonGenerator.
+ * <p>
+ * Avoids building a JsonObject/JsonArray tree per document: strings are written
+ * once, vector elements go from the primitive float[] to the output without boxing,
+ * and the byte buffer is reused per thread. The resulting bytes are stored as-is
+ * through RawJsonTranscoder or appended to export files. readQuestionVector() streams
+ * the vector back out of stored bytes, e.g. for vector snapshots; readContent() reads
+ * the text fields and vector statistics for load verification.
+ */
+public final class FaqJsonEncoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(() -> new Buffer(16 * 1024));
+
+    private FaqJsonEncoder() {
+    }
+
+    /**
+     * Encodes the document body (without key) into this thread's reusable buffer.
+     * The returned buffer is only valid until the next encode call on the same thread.
+     */
+    public static Buffer encode(FaqDocument doc) {
+        return encode(doc, null, false);
+    }
+
+    /**
+     * Encodes one NDJSON line: the document body with its key in an "id" field,
+     * followed by a newline. Same buffer lifetime rules as {@link #encode(FaqDocument)}.
+     */
+    public static Buffer encodeLine(FaqDocument doc) {
+        return encode(doc, doc.getId(), true);
+    }
+
+    /**
+     * Encodes the document body into an exactly sized array the caller may keep.
+     */
+    public static byte[] toBytes(FaqDocument doc) {
+        return encode(doc).toByteArray();
+    }
+
+    /**
+     * Reads question_vector back from a stored document body, skipping every other
+     * field without materializing it. Returns null when the document has no vector.
+     */
+    public static float[] readQuestionVector(byte[] json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("question_vector".equals(field) && value == JsonToken.START_ARRAY) {
+                    return readFloats(parser);
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read question_vector", e);
+        }
+    }
+
+    /**
+     * Reads the text fields, meta.model_name and the dimension and norm of
+     * question_vector from a stored document body, without materializing the vector.
+     */
+    public static StoredContent readContent(byte[] json) {
+        String category = null;
+        String question = null;
+        String answer = null;
+        String image = null;
+        String link = null;
+        String modelName = null;
+        int dim = 0;
+        double sumOfSquares = 0;
+        boolean finite = true;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Document is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "category" -> category = readText(parser, value);
+                    case "question" -> question = readText(parser, value);
+                    case "answer" -> answer = readText(parser, value);
+                    case "image" -> image = readText(parser, value);
+                    case "link" -> link = readText(parser, value);
+                    case "question_vector" -> {
+                        if (value != JsonToken.START_ARRAY) {
+                            parser.skipChildren();
+                            break;
+                        }
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            double v = parser.getDoubleValue();
+                            finite &= Double.isFinite(v);
+                            sumOfSquares += v * v;
+                            dim++;
+                        }
+                    }
+                    case "meta" -> {
+                        if (value != JsonToken.START_OBJECT) {
+                            parser.skipChildren();
+                            break;
+                        }
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String metaField = parser.currentName();
+                            JsonToken metaValue = parser.nextToken();
+                            if ("model_name".equals(metaField)) {
+                                modelName = readText(parser, metaValue);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read stored FAQ", e);
+        }
+        return new StoredContent(category, question, answer, image, link, modelName, dim, Math.sqrt(sumOfSquares), finite);
+    }
+
+    private static String readText(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isScalarValue()) {
+            return value == JsonToken.VALUE_NULL ? null : parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static float[] readFloats(JsonParser parser) throws IOException {
+        float[] values = new float[1024];
+        int size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = parser.getFloatValue();
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private static Buffer encode(FaqDocument doc, String key, boolean newline) {
+        Buffer out = BUFFERS.get();
+        out.reset();
+        try (JsonGenerator gen = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            if (key != null) {
+                gen.writeStringField("id", key);
+            }
+            gen.writeStringField("type", doc.getType());
+            gen.writeStringField("category", doc.getCategory());
+            gen.writeStringField("question", doc.getQuestion());
+            gen.writeStringField("answer", doc.getAnswer());
+            gen.writeStringField("image", doc.getImage());
+            gen.writeStringField("link", doc.getLink());
+            gen.writeArrayFieldStart("question_vector");
+            for (float v : doc.getQuestionVector()) {
+                gen.writeNumber(v);
+            }
+            gen.writeEndArray();
+            gen.writeObjectFieldStart("meta");
+            for (Map.Entry<String, Object> e : doc.getMeta().entrySet()) {
+                gen.writeFieldName(e.getKey());
+                gen.writeObject(e.getValue());
+            }
+            gen.writeEndObject();
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode FAQ [" + doc.getId() + "]", e);
+        }
+        if (newline) {
+            out.write('\n');
+        }
+        return out;
+    }
+
+    /**
+     * Growable byte buffer whose backing array is exposed to avoid a copy per write.
+     */
+    public static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer(int initialSize) {
+            super(initialSize);
+        }
+
+        public byte[] array() {
+            return buf;
+        }
+    }
+}
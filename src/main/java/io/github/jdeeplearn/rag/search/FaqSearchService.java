@@ -0,0 +1,205 @@
+package io.github.jdeeplearn.rag.search;
+
+import io.github.jdeeplearn.rag.model.FaqSearchHit;
+import io.github.jdeeplearn.rag.model.StoredFaq;
+import io.github.jdeeplearn.rag.model.VectorSearchResponse.Hit;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.service.EmbeddingClient;
+import io.github.jdeeplearn.rag.service.FaqIds;
+import io.github.jdeeplearn.rag.service.FaqsIngestedEvent;
+import io.github.jdeeplearn.rag.service.VectorTruncation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Semantic FAQ search (uploader.mode=service):
+ *  1. Embed the query through EmbeddingClient (LRU cache by normalized query text).
+ *  2. KNN query against the FTS vector index, optionally prefiltered by category.
+ *  3. Hydrate hits, depending on search.hydration:
+ *     - kv (default): concurrent sub-document lookups (no vector transfer)
+ *     - index: "covering" mode, display fields come back with the KNN hits; requires
+ *       them in vector.stored-fields. Hits without stored fields fall back to KV.
+ *
+ * Complete top-k results are cached with a TTL and dropped whenever an upload changes
+ * stored FAQs, so repeated queries touch neither the embedding service nor FTS.
+ */
+@Service
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "service")
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+public class FaqSearchService {
+
+    private static final Logger log = LogManager.getLogger(FaqSearchService.class);
+
+    static final List<String> DISPLAY_FIELDS = List.of("category", "question", "answer", "image", "link");
+
+    public enum Hydration {
+        KV, INDEX
+    }
+
+    private final EmbeddingClient embeddingClient;
+    private final VectorSearchClient vectorSearch;
+    private final CouchbaseFaqRepository repository;
+    private final int maxK;
+    private final int kvConcurrency;
+    private final long resultTtlNanos;
+    private final Hydration hydration;
+    private final int storedDim;
+
+    private final LruCache<String, float[]> queryEmbeddings;
+    private final LruCache<ResultKey, CachedResult> results;
+    // Bumped on ingestion; results computed under an older generation are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder resultHits = new LongAdder();
+    private final LongAdder embeddingHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param storedDim vector.stored-dim: query vectors are truncated like stored ones
+     */
+    @Autowired
+    public FaqSearchService(
+            EmbeddingClient embeddingClient,
+            VectorSearchClient vectorSearch,
+            CouchbaseFaqRepository repository,
+            @Value("${search.max-k:50}") int maxK,
+            @Value("${search.kv-concurrency:16}") int kvConcurrency,
+            @Value("${search.embedding-cache-size:10000}") int embeddingCacheSize,
+            @Value("${search.result-cache-size:10000}") int resultCacheSize,
+            @Value("${search.result-ttl-seconds:300}") long resultTtlSeconds,
+            @Value("${search.hydration:kv}") String hydration,
+            @Value("${vector.stored-dim:0}") int storedDim
+    ) {
+        this.embeddingClient = embeddingClient;
+        this.storedDim = storedDim;
+        this.vectorSearch = vectorSearch;
+        this.repository = repository;
+        this.maxK = maxK;
+        this.kvConcurrency = kvConcurrency;
+        this.resultTtlNanos = resultTtlSeconds * 1_000_000_000L;
+        this.queryEmbeddings = new LruCache<>(embeddingCacheSize);
+        this.results = new LruCache<>(resultCacheSize);
+        this.hydration = Hydration.valueOf(hydration.trim().toUpperCase(Locale.ROOT));
+        log.info("Search hydration mode: {}", this.hydration);
+    }
+
+    /**
+     * The k FAQs closest to the query, best first.
+     */
+    public List<FaqSearchHit> search(String query, int k) {
+        return search(query, k, null);
+    }
+
+    /**
+     * The k FAQs of the given category closest to the query, best first.
+     * Only documents of that category are scored; null means all categories.
+     */
+    public List<FaqSearchHit> search(String query, int k, String category) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("query must not be blank");
+        }
+        int limit = Math.max(1, Math.min(k, maxK));
+        String normalized = FaqIds.normalize(query);
+        String filter = category == null || category.isBlank() ? null : category.trim();
+        ResultKey key = new ResultKey(normalized, limit, filter);
+
+        CachedResult cached = results.get(key);
+        if (cached != null && cached.expiresAt() - System.nanoTime() > 0) {
+            resultHits.increment();
+            return cached.hits();
+        }
+
+        long generationAtStart = generation.get();
+        float[] vector = embed(query, normalized);
+        List<FaqSearchHit> hits = hydration == Hydration.INDEX
+                ? hydrate(vectorSearch.knn(vector, limit, filter, DISPLAY_FIELDS))
+                : hydrate(vectorSearch.knn(vector, limit, filter));
+
+        if (generation.get() == generationAtStart) {
+            results.put(key, new CachedResult(hits, System.nanoTime() + resultTtlNanos));
+        }
+        return hits;
+    }
+
+    @EventListener
+    public void onIngested(FaqsIngestedEvent event) {
+        generation.incrementAndGet();
+        results.clear();
+        log.debug("Search result cache cleared after ingestion (written={}, patched={})",
+                event.written(), event.patched());
+    }
+
+    public long getResultCacheHits() {
+        return resultHits.sum();
+    }
+
+    public long getEmbeddingCacheHits() {
+        return embeddingHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * The model sees the query as typed (case can matter to it); the normalized form
+     * only keys the cache, so spelling variants share the first variant's vector.
+     */
+    private float[] embed(String query, String normalizedQuery) {
+        float[] vector = queryEmbeddings.get(normalizedQuery);
+        if (vector != null) {
+            embeddingHits.increment();
+            return vector;
+        }
+        misses.increment();
+        vector = embeddingClient.embed(query);
+        if (vector.length == 0) {
+            throw new IllegalStateException("Embedding service returned no vector for the query");
+        }
+        vector = VectorTruncation.truncate(vector, storedDim);
+        queryEmbeddings.put(normalizedQuery, vector);
+        return vector;
+    }
+
+    private List<FaqSearchHit> hydrate(List<Hit> knnHits) {
+        // Only hits the index did not cover need a KV read
+        List<String> uncovered = knnHits.stream()
+                .filter(hit -> hit.field("question") == null)
+                .map(Hit::id)
+                .toList();
+        Map<String, StoredFaq> stored = repository.findStored(uncovered, kvConcurrency);
+
+        List<FaqSearchHit> hits = new ArrayList<>(knnHits.size());
+        for (Hit hit : knnHits) {
+            if (hit.field("question") != null) {
+                hits.add(new FaqSearchHit(hit.id(), hit.score(), hit.field("category"), hit.field("question"),
+                        hit.field("answer"), hit.field("image"), hit.field("link")));
+                continue;
+            }
+            StoredFaq faq = stored.get(hit.id());
+            if (faq == null) {
+                // Indexed but deleted since (or not readable); skip rather than return an empty hit
+                continue;
+            }
+            hits.add(new FaqSearchHit(hit.id(), hit.score(), faq.category(), faq.question(),
+                    faq.answer(), faq.image(), faq.link()));
+        }
+        return List.copyOf(hits);
+    }
+
+    private record ResultKey(String normalizedQuery, int k, String category) {}
+
+    private record CachedResult(List<FaqSearchHit> hits, long expiresAt) {}
+}
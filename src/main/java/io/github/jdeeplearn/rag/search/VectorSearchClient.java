@@ -0,0 +1,102 @@
+package io.github.jdeeplearn.rag.search;
+
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.model.VectorSearchResponse;
+import io.github.jdeeplearn.rag.model.VectorSearchResponse.Hit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunctions;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * KNN queries against the FTS vector index (same request as test_vector_fts_query.cbq).
+ * Returns document keys and scores only; callers hydrate the documents themselves.
+ */
+@Component
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "service")
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+public class VectorSearchClient {
+
+    private static final Logger log = LogManager.getLogger(VectorSearchClient.class);
+
+    private final WebClient webClient;
+    private final String indexName;
+    private final int timeoutMs;
+
+    @Autowired
+    public VectorSearchClient(
+            @Value("${couchbase.fts.url:http://localhost:8094}") String ftsUrl,
+            // Queries go through the alias when one is configured (see migration mode)
+            @Value("${vector.search-alias:${vector.index-name:faq_vectors}}") String indexName,
+            @Value("${spring.couchbase.username:admin}") String username,
+            @Value("${spring.couchbase.password:password}") String password,
+            @Value("${search.timeout-ms:2000}") int timeoutMs,
+            HttpTransport transport
+    ) {
+        this.webClient = transport.webClient(HttpTransport.Peer.FTS, ftsUrl)
+                .filter(ExchangeFilterFunctions.basicAuthentication(username, password))
+                .build();
+        this.indexName = indexName;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * The k nearest FAQs to the given vector, best first.
+     */
+    public List<Hit> knn(float[] vector, int k) {
+        return knn(vector, k, null);
+    }
+
+    /**
+     * The k nearest FAQs within one category, best first. The category is a KNN
+     * prefilter on the keyword-indexed category field: only matching documents are
+     * scored. A null category searches the whole index.
+     */
+    public List<Hit> knn(float[] vector, int k, String category) {
+        return knn(vector, k, category, List.of());
+    }
+
+    /**
+     * Same as above, additionally returning the given stored fields with each hit.
+     */
+    public List<Hit> knn(float[] vector, int k, String category, List<String> fields) {
+        Map<String, Object> knn = new LinkedHashMap<>();
+        knn.put("field", "question_vector");
+        knn.put("k", k);
+        knn.put("vector", vector);
+        if (category != null) {
+            knn.put("filter", Map.of("term", category, "field", "category"));
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("knn", List.of(knn));
+        payload.put("size", k);
+        if (!fields.isEmpty()) {
+            payload.put("fields", fields);
+        }
+
+        VectorSearchResponse response = webClient.post()
+                .uri("/api/index/{index}/query", indexName)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload)
+                .retrieve()
+                .bodyToMono(VectorSearchResponse.class)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .block();
+
+        if (response == null || response.hits() == null) {
+            return List.of();
+        }
+        log.debug("KNN query on '{}' (category={}) returned {} hits", indexName, category, response.hits().size());
+        return response.hits();
+    }
+}
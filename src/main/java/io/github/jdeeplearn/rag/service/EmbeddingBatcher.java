@@ -0,0 +1,317 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.service.EmbeddingClient.BatchResult;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Packs concurrent embed() calls into batched /embed requests.
+ *
+ * Transformer servers pad every batch to its longest input, so a batch costs
+ * roughly size x longest input. Pending texts are therefore kept in power-of-two
+ * length buckets and each request is filled from a single bucket (inputs within
+ * 2x of each other) until its padded cost reaches the budget:
+ *  - cost is measured in characters, or in tokens when chars-per-token is set;
+ *  - a bucket is sent as soon as it can fill a batch, or once its oldest text has
+ *    waited max-wait-ms;
+ *  - with target-latency-ms set, the budget follows the observed cost per padded
+ *    unit (latency scaled by the total_chars the service reports processing), so
+ *    batches grow until a request takes about the target time.
+ *
+ * Callers block until their vector is back, so batches only fill when many workers
+ * embed at once (raise uploader.threads). A failed request yields an empty vector
+ * for each of its texts, like a failed embed() call.
+ */
+@Component
+@ConditionalOnProperty(name = "embedding.batching.enabled", havingValue = "true")
+public class EmbeddingBatcher {
+
+    private static final Logger log = LogManager.getLogger(EmbeddingBatcher.class);
+
+    private static final int BUCKETS = Integer.SIZE;
+    private static final double EWMA_WEIGHT = 0.2;
+
+    private final EmbeddingClient embeddingClient;
+    private final int minBudget;
+    private final int maxBudget;
+    private final double charsPerToken;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long targetLatencyNanos;
+
+    private final List<ArrayDeque<Pending>> buckets = new ArrayList<>(BUCKETS);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Semaphore inFlight;
+    private final ExecutorService senders;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    // Guarded by "this"
+    private double budget;
+    private double nanosPerUnit;
+
+    public EmbeddingBatcher(
+            EmbeddingClient embeddingClient,
+            @Value("${embedding.batching.budget:8192}") int budget,
+            @Value("${embedding.batching.min-budget:1024}") int minBudget,
+            @Value("${embedding.batching.max-budget:65536}") int maxBudget,
+            @Value("${embedding.batching.chars-per-token:1}") double charsPerToken,
+            @Value("${embedding.batching.max-batch-size:64}") int maxBatchSize,
+            @Value("${embedding.batching.max-wait-ms:10}") long maxWaitMs,
+            @Value("${embedding.batching.target-latency-ms:0}") long targetLatencyMs,
+            @Value("${embedding.batching.max-in-flight:4}") int maxInFlight
+    ) {
+        this.embeddingClient = embeddingClient;
+        this.minBudget = Math.max(1, minBudget);
+        this.maxBudget = Math.max(this.minBudget, maxBudget);
+        this.budget = clamp(budget, this.minBudget, this.maxBudget);
+        this.charsPerToken = charsPerToken > 0 ? charsPerToken : 1;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, targetLatencyMs));
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+        this.senders = Executors.newFixedThreadPool(Math.max(1, maxInFlight), daemon("embedding-batch-sender"));
+        this.dispatcher = daemon("embedding-batcher").newThread(this::dispatch);
+        this.dispatcher.start();
+
+        log.info("Embedding batching enabled: budget={} ({}..{}), chars-per-token={}, max-batch-size={}, "
+                        + "max-wait-ms={}, target-latency-ms={}, max-in-flight={}",
+                (int) this.budget, this.minBudget, this.maxBudget, this.charsPerToken, this.maxBatchSize,
+                maxWaitMs, targetLatencyMs, maxInFlight);
+    }
+
+    /**
+     * Embeds one text as part of a batch; blocks until the batch returns.
+     * Same contract as EmbeddingClient.embed(): an empty vector on failure.
+     */
+    public float[] embed(String text) {
+        if (text == null || text.isBlank()) {
+            log.warn("Skipping embedding for blank text");
+            return new float[0];
+        }
+        return submit(text).join();
+    }
+
+    CompletableFuture<float[]> submit(String text) {
+        int cost = cost(text);
+        Pending pending = new Pending(text, cost, System.nanoTime(), new CompletableFuture<>());
+        lock.lock();
+        try {
+            if (!running) {
+                pending.result().complete(new float[0]);
+                return pending.result();
+            }
+            buckets.get(Integer.SIZE - 1 - Integer.numberOfLeadingZeros(cost)).addLast(pending);
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        return pending.result();
+    }
+
+    /**
+     * Current padded-cost budget per request, in characters or tokens.
+     */
+    public synchronized int budget() {
+        return (int) budget;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+        senders.shutdown();
+        lock.lock();
+        try {
+            for (ArrayDeque<Pending> bucket : buckets) {
+                bucket.forEach(p -> p.result().complete(new float[0]));
+                bucket.clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int cost(String text) {
+        return Math.max(1, (int) Math.ceil(text.length() / charsPerToken));
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                // Take the permit first, so the batch is picked from everything queued meanwhile
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            List<Pending> batch;
+            try {
+                batch = awaitBatch();
+            } catch (InterruptedException e) {
+                inFlight.release();
+                return;
+            }
+            try {
+                senders.execute(() -> send(batch));
+            } catch (RejectedExecutionException e) {
+                // Shut down while this batch was being picked
+                batch.forEach(p -> p.result().complete(new float[0]));
+                return;
+            }
+        }
+    }
+
+    private List<Pending> awaitBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                int limit = budget();
+                Pending oldest = null;
+                ArrayDeque<Pending> oldestBucket = null;
+                for (ArrayDeque<Pending> bucket : buckets) {
+                    Pending head = bucket.peekFirst();
+                    if (head == null) {
+                        continue;
+                    }
+                    if (isFull(bucket, limit)) {
+                        return take(bucket, limit);
+                    }
+                    if (oldest == null || head.enqueuedNanos() < oldest.enqueuedNanos()) {
+                        oldest = head;
+                        oldestBucket = bucket;
+                    }
+                }
+                if (oldest == null) {
+                    changed.await();
+                    continue;
+                }
+                long dueIn = oldest.enqueuedNanos() + maxWaitNanos - now;
+                if (dueIn <= 0) {
+                    return take(oldestBucket, limit);
+                }
+                changed.awaitNanos(dueIn);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * True when the bucket holds enough texts to fill a batch: the next one would
+     * exceed the batch size or push the padded cost over the budget.
+     */
+    private boolean isFull(ArrayDeque<Pending> bucket, int limit) {
+        int count = 0;
+        int longest = 0;
+        for (Pending pending : bucket) {
+            longest = Math.max(longest, pending.cost());
+            if (count == maxBatchSize || (long) (count + 1) * longest > limit) {
+                return true;
+            }
+            count++;
+        }
+        return false;
+    }
+
+    private List<Pending> take(ArrayDeque<Pending> bucket, int limit) {
+        List<Pending> batch = new ArrayList<>();
+        int longest = 0;
+        while (!bucket.isEmpty() && batch.size() < maxBatchSize) {
+            Pending next = bucket.peekFirst();
+            int padded = Math.max(longest, next.cost());
+            // An oversized text still goes out, alone
+            if (!batch.isEmpty() && (long) (batch.size() + 1) * padded > limit) {
+                break;
+            }
+            batch.add(bucket.pollFirst());
+            longest = padded;
+        }
+        return batch;
+    }
+
+    private void send(List<Pending> batch) {
+        List<String> texts = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            texts.add(pending.text());
+        }
+        long start = System.nanoTime();
+        try {
+            BatchResult result = embeddingClient.embedBatch(texts);
+            observe(batch, result.totalChars(), System.nanoTime() - start);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(result.vectors().get(i));
+            }
+        } catch (Exception e) {
+            log.error("Embedding batch of {} texts failed: {}", batch.size(), e.toString());
+            batch.forEach(p -> p.result().complete(new float[0]));
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Updates the cost per padded unit and, with a latency target, the budget.
+     * total_chars is what the service actually processed; scaling the local padded
+     * cost by it accounts for server-side truncation or normalization.
+     */
+    void observe(List<Pending> batch, long totalChars, long latencyNanos) {
+        long localChars = 0;
+        int longest = 0;
+        for (Pending pending : batch) {
+            localChars += pending.text().length();
+            longest = Math.max(longest, pending.cost());
+        }
+        double scale = localChars > 0 && totalChars > 0 ? (double) totalChars / localChars : 1.0;
+        double paddedUnits = Math.max(1.0, (double) batch.size() * longest * scale);
+        double sample = latencyNanos / paddedUnits;
+
+        synchronized (this) {
+            nanosPerUnit = nanosPerUnit == 0 ? sample : nanosPerUnit + EWMA_WEIGHT * (sample - nanosPerUnit);
+            if (targetLatencyNanos > 0) {
+                double previous = budget;
+                budget = clamp(targetLatencyNanos / nanosPerUnit, minBudget, maxBudget);
+                if ((int) previous != (int) budget) {
+                    log.debug("Embedding batch budget {} -> {} ({} ns per unit)",
+                            (int) previous, (int) budget, (long) nanosPerUnit);
+                }
+            }
+        }
+    }
+
+    private static double clamp(double value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    record Pending(String text, int cost, long enqueuedNanos, CompletableFuture<float[]> result) {
+    }
+}
@@ -1,50 +1,94 @@
 package io.github.jdeeplearn.rag.service;
 
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.jfr.EmbeddingEvent;
+import io.github.jdeeplearn.rag.logging.LogSampler;
 import io.github.jdeeplearn.rag.model.EmbeddingRequest;
 import io.github.jdeeplearn.rag.model.EmbeddingResponse;
 import io.github.jdeeplearn.rag.model.EmbeddingResponse.EmbeddingItem;
+import io.github.jdeeplearn.rag.service.EmbeddingEndpoints.Endpoint;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Embedding client for Granite-compatible /embed API.
  * Uses strongly-typed POJOs for request/response.
+ * <p>
+ * embedding.service-url may list several replicas (comma-separated). Each request
+ * goes to the least loaded healthy one (see EmbeddingEndpoints); failing replicas
+ * are ejected for a while. With embedding.hedge.enabled, a request still running
+ * after the observed p95 (embedding.hedge.percentile) latency is duplicated to
+ * another replica and the first response wins.
+ * <p>
+ * Replicas are called through the shared HttpTransport (pooled connections, gzip,
+ * optionally HTTP/2 and compressed request bodies).
  */
 @Component
 public class EmbeddingClient {
 
     private static final Logger log = LogManager.getLogger(EmbeddingClient.class);
 
-    private final WebClient webClient;
+    private final LogSampler sampledLogs = new LogSampler();
+
+    private final EmbeddingEndpoints endpoints;
     private final String modelName;
     private final String provider;
     private final int timeoutMs;
+    private final boolean hedging;
+    private final Duration hedgeMinDelay;
 
+    @Autowired
     public EmbeddingClient(
-            @Value("${embedding.service-url:http://localhost:8000/}") String baseUrl,
+            @Value("${embedding.service-url:http://localhost:8000/}") String baseUrls,
             @Value("${embedding.model-name:granite-embedding-english-r2}") String modelName,
             @Value("${embedding.provider:ibm-granite}") String provider,
-            @Value("${embedding.timeout-ms:5000}") int timeoutMs
+            @Value("${embedding.timeout-ms:5000}") int timeoutMs,
+            @Value("${embedding.load-balancing:ewma}") String loadBalancing,
+            @Value("${embedding.ejection.failure-threshold:3}") int failureThreshold,
+            @Value("${embedding.ejection.duration-ms:10000}") long ejectionMs,
+            @Value("${embedding.hedge.enabled:false}") boolean hedging,
+            @Value("${embedding.hedge.percentile:95}") double hedgePercentile,
+            @Value("${embedding.hedge.min-delay-ms:20}") long hedgeMinDelayMs,
+            HttpTransport transport
     ) {
-        this.webClient = WebClient.builder()
-                .baseUrl(baseUrl)
-                .build();
+        this.endpoints = new EmbeddingEndpoints(
+                transport,
+                EmbeddingEndpoints.parseUrls(baseUrls),
+                EmbeddingEndpoints.LoadBalancing.from(loadBalancing),
+                failureThreshold,
+                ejectionMs,
+                hedgePercentile,
+                timeoutMs
+        );
         this.modelName = modelName;
         this.provider = provider;
         this.timeoutMs = timeoutMs;
+        this.hedging = hedging && endpoints.size() > 1;
+        this.hedgeMinDelay = Duration.ofMillis(Math.max(0, hedgeMinDelayMs));
+        if (endpoints.size() > 1) {
+            log.info("Embedding endpoints: {} (load-balancing={}, hedging={})",
+                    endpoints.endpoints(), loadBalancing, this.hedging);
+        }
     }
 
     /**
      * Generates an embedding vector for a single text input.
+     * Each call is recorded as an EmbeddingEvent, tagged with the FAQ key from the
+     * logging context (see FaqIds.CONTEXT_KEY) when there is one.
      */
     public float[] embed(String text) {
         if (text == null || text.isBlank()) {
@@ -52,46 +96,183 @@ public class EmbeddingClient {
             return new float[0];
         }
 
+        EmbeddingEvent event = new EmbeddingEvent();
+        event.begin();
         try {
-            EmbeddingRequest request = EmbeddingRequest.of(text);
-
-            EmbeddingResponse response = webClient.post()
-                    .uri("/embed")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(EmbeddingResponse.class)
-                    .timeout(Duration.ofMillis(timeoutMs))
-                    .block();
+            EmbeddingResponse response = execute(EmbeddingRequest.of(text));
+            event.httpStatus = 200;
 
             if (response == null || response.getEmbeddings() == null || response.getEmbeddings().isEmpty()) {
                 throw new IllegalStateException("No embeddings returned from service");
             }
 
-            EmbeddingItem item = response.getEmbeddings().get(0);
-            List<Double> values = item.getVector();
-            if (values == null || values.isEmpty()) {
-                throw new IllegalStateException("Empty embedding vector");
-            }
+            float[] vector = toVector(response.getEmbeddings().get(0));
+            event.dimensions = vector.length;
 
-            float[] vector = new float[values.size()];
-            for (int i = 0; i < values.size(); i++) {
-                vector[i] = values.get(i).floatValue();
+            if (sampledLogs.shouldLog(log)) {
+                log.debug("Embedding success: model={}, dim={}, len={} (1 in {} logged)",
+                        response.getModel(), response.getEmbeddingDim(), vector.length, sampledLogs.every());
             }
 
-            log.info("Embedding success: model={}, dim={}, len={}",
-                    response.getModel(), response.getEmbeddingDim(), vector.length);
-
             return vector;
 
         } catch (WebClientResponseException e) {
+            event.httpStatus = e.getStatusCode().value();
+            event.error = e.getStatusText();
             log.error("Embedding service HTTP error: {} {}", e.getStatusCode(), e.getResponseBodyAsString());
         } catch (Exception e) {
+            event.error = e.toString();
             log.error("Embedding service call failed: {}", e.toString(), e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.recordId = ThreadContext.get(FaqIds.CONTEXT_KEY);
+                event.model = modelName;
+                event.batchSize = 1;
+                event.inputChars = text.length();
+                event.timeoutMs = timeoutMs;
+                event.commit();
+            }
         }
         return new float[0];
     }
 
+    /**
+     * Generates embeddings for several texts in one request. Vectors are placed by the
+     * index each item reports and returned in input order together with the service-reported total_chars (or the local count
+     * when the service does not report it).
+     * <p>
+     * Unlike embed(), failures are thrown so callers can fail every text of the batch;
+     * the call is recorded as one EmbeddingEvent with its batch size.
+     */
+    public BatchResult embedBatch(List<String> texts) {
+        long localChars = 0;
+        for (String text : texts) {
+            localChars += text.length();
+        }
+
+        EmbeddingEvent event = new EmbeddingEvent();
+        event.begin();
+        try {
+            EmbeddingResponse response = execute(EmbeddingRequest.of(texts));
+            event.httpStatus = 200;
+
+            if (response == null || response.getEmbeddings() == null
+                    || response.getEmbeddings().size() != texts.size()) {
+                throw new IllegalStateException("Expected " + texts.size() + " embeddings from service, got "
+                        + (response == null || response.getEmbeddings() == null ? 0 : response.getEmbeddings().size()));
+            }
+
+            // Items carry their input position; replicas are not required to keep the order
+            float[][] ordered = new float[texts.size()][];
+            for (EmbeddingItem item : response.getEmbeddings()) {
+                int index = item.getIndex();
+                if (index < 0 || index >= ordered.length || ordered[index] != null) {
+                    throw new IllegalStateException("Embedding index " + index
+                            + " is out of range or duplicated in a batch of " + texts.size());
+                }
+                ordered[index] = toVector(item);
+            }
+            List<float[]> vectors = Arrays.asList(ordered);
+            event.dimensions = vectors.get(0).length;
+
+            long totalChars = reportedTotalChars(response, localChars);
+            log.debug("Embedding batch success: model={}, size={}, total_chars={}",
+                    response.getModel(), texts.size(), totalChars);
+
+            return new BatchResult(vectors, totalChars);
+
+        } catch (WebClientResponseException e) {
+            event.httpStatus = e.getStatusCode().value();
+            event.error = e.getStatusText();
+            throw e;
+        } catch (RuntimeException e) {
+            event.error = e.toString();
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.model = modelName;
+                event.batchSize = texts.size();
+                event.inputChars = localChars;
+                event.timeoutMs = timeoutMs;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Sends the request to the best endpoint and, when hedging applies, a duplicate
+     * to the next best one once the hedge delay has passed. Blocks for the first
+     * successful response; fails only when every attempt failed.
+     */
+    private EmbeddingResponse execute(EmbeddingRequest request) {
+        Endpoint primary = endpoints.pick(null);
+        Mono<EmbeddingResponse> call = call(primary, request);
+
+        Duration hedgeDelay = hedging ? endpoints.hedgeDelay() : null;
+        if (hedgeDelay != null) {
+            Duration delay = hedgeDelay.compareTo(hedgeMinDelay) > 0 ? hedgeDelay : hedgeMinDelay;
+            Mono<EmbeddingResponse> hedge = Mono.delay(delay)
+                    .then(Mono.defer(() -> {
+                        Endpoint other = endpoints.pick(primary);
+                        if (other == null) {
+                            return Mono.empty();
+                        }
+                        log.debug("Hedging embedding request to {} after {} ms", other, delay.toMillis());
+                        return call(other, request);
+                    }));
+            // The loser is cancelled; if both fail, the primary's error is reported
+            call = Mono.firstWithValue(call, hedge)
+                    .onErrorMap(NoSuchElementException.class,
+                            e -> e.getCause() != null ? Exceptions.unwrapMultiple(e.getCause()).get(0) : e);
+        }
+        return call.block();
+    }
+
+    private Mono<EmbeddingResponse> call(Endpoint endpoint, EmbeddingRequest request) {
+        return Mono.defer(() -> {
+            endpoint.begin();
+            long start = System.nanoTime();
+            return endpoint.webClient().post()
+                    .uri("/embed")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToMono(EmbeddingResponse.class)
+                    .timeout(Duration.ofMillis(timeoutMs))
+                    .doOnSuccess(response -> endpoints.succeeded(endpoint, System.nanoTime() - start))
+                    .doOnError(e -> endpoints.failed(endpoint, e))
+                    .doOnCancel(() -> endpoints.cancelled(endpoint, System.nanoTime() - start))
+                    .doFinally(signal -> endpoint.end());
+        });
+    }
+
+    private static float[] toVector(EmbeddingItem item) {
+        List<Double> values = item.getVector();
+        if (values == null || values.isEmpty()) {
+            throw new IllegalStateException("Empty embedding vector");
+        }
+
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            vector[i] = values.get(i).floatValue();
+        }
+        return vector;
+    }
+
+    private static long reportedTotalChars(EmbeddingResponse response, long fallback) {
+        Map<String, Object> metadata = response.getMetadata();
+        Object value = metadata != null ? metadata.get("total_chars") : null;
+        return value instanceof Number number ? number.longValue() : fallback;
+    }
+
+    /**
+     * Vectors of one embedBatch call, in input order.
+     */
+    public record BatchResult(List<float[]> vectors, long totalChars) {
+    }
+
     public String getModelName() {
         return modelName;
     }
@@ -0,0 +1,293 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedding service replicas and the bookkeeping EmbeddingClient routes by.
+ *
+ * Per endpoint: outstanding requests, an EWMA of latencies and passive health.
+ * Successes count with their latency, and so does a request cancelled after
+ * losing to its hedge, with the time it had taken so far. Until an endpoint has a
+ * sample it is routed as if it had the mean latency of the measured ones (the
+ * timeout while none is measured), so a new replica is neither free nor shunned. After failure-threshold consecutive failures (5xx, timeouts, connection
+ * errors; not 4xx) an endpoint is ejected for ejection-ms, doubled on each repeated
+ * ejection up to 8x. Once the ejection expires the endpoint takes traffic again, and
+ * a single further failure ejects it again. When every endpoint is ejected, the one
+ * due back first is used anyway.
+ *
+ * Successful latencies across all endpoints also feed a sliding window whose
+ * percentile is the hedging delay.
+ */
+final class EmbeddingEndpoints {
+
+    private static final Logger log = LogManager.getLogger(EmbeddingEndpoints.class);
+
+    private static final double EWMA_WEIGHT = 0.3;
+    private static final int MAX_EJECTION_DOUBLINGS = 3;
+    private static final int LATENCY_WINDOW = 512;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    /**
+     * least-outstanding: fewest requests in flight, ties broken by EWMA latency.
+     * ewma: EWMA latency weighted by in-flight requests (a busy fast replica can
+     * still lose to an idle slower one).
+     */
+    enum LoadBalancing {
+        LEAST_OUTSTANDING,
+        EWMA;
+
+        static LoadBalancing from(String value) {
+            return value != null && value.trim().toLowerCase(Locale.ROOT).equals("least-outstanding")
+                    ? LEAST_OUTSTANDING
+                    : EWMA;
+        }
+    }
+
+    private final List<Endpoint> endpoints;
+    private final LoadBalancing loadBalancing;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final double hedgePercentile;
+    private final long timeoutNanos;
+
+    // Guarded by "this"
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+    private long cachedPercentile = -1;
+
+    EmbeddingEndpoints(HttpTransport transport, List<String> urls, LoadBalancing loadBalancing,
+                       int failureThreshold, long ejectionMs, double hedgePercentile, long timeoutMs) {
+        List<Endpoint> list = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            list.add(new Endpoint(url, transport.webClient(HttpTransport.Peer.EMBEDDING, url).build()));
+        }
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("At least one embedding endpoint is required");
+        }
+        this.endpoints = List.copyOf(list);
+        this.loadBalancing = loadBalancing;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ejectionMs));
+        this.hedgePercentile = Math.min(100, Math.max(1, hedgePercentile));
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, timeoutMs));
+    }
+
+    /**
+     * Splits a comma-separated embedding.service-url into endpoint URLs.
+     */
+    static List<String> parseUrls(String urls) {
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    int size() {
+        return endpoints.size();
+    }
+
+    List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Picks the best available endpoint other than "exclude" (may be null);
+     * null when "exclude" is the only endpoint.
+     */
+    Endpoint pick(Endpoint exclude) {
+        long now = System.nanoTime();
+        double prior = prior();
+        Endpoint best = null;
+        Endpoint dueFirst = null;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint == exclude) {
+                continue;
+            }
+            if (endpoint.isEjected(now)) {
+                if (dueFirst == null || endpoint.ejectedUntil - dueFirst.ejectedUntil < 0) {
+                    dueFirst = endpoint;
+                }
+                continue;
+            }
+            if (best == null || compare(endpoint, best, prior) < 0) {
+                best = endpoint;
+            }
+        }
+        return best != null ? best : dueFirst;
+    }
+
+    private int compare(Endpoint a, Endpoint b, double prior) {
+        int outstandingA = a.outstanding.get();
+        int outstandingB = b.outstanding.get();
+        if (loadBalancing == LoadBalancing.LEAST_OUTSTANDING && outstandingA != outstandingB) {
+            return Integer.compare(outstandingA, outstandingB);
+        }
+        double costA = a.latencyNanos(prior) * (loadBalancing == LoadBalancing.EWMA ? outstandingA + 1 : 1);
+        double costB = b.latencyNanos(prior) * (loadBalancing == LoadBalancing.EWMA ? outstandingB + 1 : 1);
+        return Double.compare(costA, costB);
+    }
+
+    /**
+     * Latency assumed for endpoints without a sample: the mean EWMA of the measured
+     * ones, or the timeout while none is measured.
+     */
+    private double prior() {
+        double sum = 0;
+        int measured = 0;
+        for (Endpoint endpoint : endpoints) {
+            double ewma = endpoint.ewmaNanos();
+            if (ewma > 0) {
+                sum += ewma;
+                measured++;
+            }
+        }
+        return measured > 0 ? sum / measured : timeoutNanos;
+    }
+
+    void succeeded(Endpoint endpoint, long latencyNanos) {
+        endpoint.succeeded(latencyNanos);
+        synchronized (this) {
+            latencies[latencyNext] = latencyNanos;
+            latencyNext = (latencyNext + 1) % LATENCY_WINDOW;
+            latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+            cachedPercentile = -1;
+        }
+    }
+
+    /**
+     * A request cancelled after elapsedNanos, typically because its hedge answered
+     * first. The elapsed time is a lower bound of the latency, so it feeds the
+     * endpoint's EWMA (a replica that keeps losing stops being picked first) but not
+     * the hedging percentile, and it does not count towards health either way.
+     */
+    void cancelled(Endpoint endpoint, long elapsedNanos) {
+        endpoint.observe(elapsedNanos);
+    }
+
+    void failed(Endpoint endpoint, Throwable error) {
+        if (error instanceof WebClientResponseException e && e.getStatusCode().is4xxClientError()) {
+            // The request was bad, not the replica
+            return;
+        }
+        endpoint.failed(failureThreshold, ejectionNanos);
+    }
+
+    /**
+     * Delay after which a duplicate request is worth sending: the configured latency
+     * percentile, or null until enough requests have succeeded to know it.
+     */
+    synchronized Duration hedgeDelay() {
+        if (latencyCount < MIN_LATENCY_SAMPLES) {
+            return null;
+        }
+        if (cachedPercentile < 0) {
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(hedgePercentile / 100.0 * sorted.length) - 1;
+            cachedPercentile = sorted[Math.max(0, index)];
+        }
+        return Duration.ofNanos(cachedPercentile);
+    }
+
+    /**
+     * One embedding service replica.
+     */
+    static final class Endpoint {
+
+        private final String url;
+        private final WebClient webClient;
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        // Guarded by "this"
+        private double ewmaNanos;
+        private int consecutiveFailures;
+        private int ejections;
+        // Read without the lock by pick(); a stale value only delays a routing decision
+        private volatile long ejectedUntil;
+        private volatile boolean ejected;
+
+        Endpoint(String url, WebClient webClient) {
+            this.url = url;
+            this.webClient = webClient;
+        }
+
+        String url() {
+            return url;
+        }
+
+        WebClient webClient() {
+            return webClient;
+        }
+
+        int outstanding() {
+            return outstanding.get();
+        }
+
+        void begin() {
+            outstanding.incrementAndGet();
+        }
+
+        void end() {
+            outstanding.decrementAndGet();
+        }
+
+        synchronized double ewmaNanos() {
+            return ewmaNanos;
+        }
+
+        private synchronized double latencyNanos(double prior) {
+            return ewmaNanos > 0 ? ewmaNanos : prior;
+        }
+
+        boolean isEjected(long now) {
+            return ejected && now - ejectedUntil < 0;
+        }
+
+        private synchronized void observe(long latencyNanos) {
+            // Clamped so that a sample never reads as "not measured yet"
+            long sample = Math.max(1, latencyNanos);
+            ewmaNanos = ewmaNanos == 0 ? sample : ewmaNanos + EWMA_WEIGHT * (sample - ewmaNanos);
+        }
+
+        private synchronized void succeeded(long latencyNanos) {
+            observe(latencyNanos);
+            consecutiveFailures = 0;
+            if (ejected) {
+                ejected = false;
+                ejections = 0;
+                log.info("Embedding endpoint {} is healthy again", url);
+            }
+        }
+
+        private synchronized void failed(int failureThreshold, long ejectionNanos) {
+            consecutiveFailures++;
+            // A failed trial after an ejection ejects again right away, for longer
+            if (consecutiveFailures >= failureThreshold || ejected) {
+                long duration = ejectionNanos << Math.min(ejections, MAX_EJECTION_DOUBLINGS);
+                ejections++;
+                ejectedUntil = System.nanoTime() + duration;
+                ejected = true;
+                consecutiveFailures = 0;
+                log.warn("Ejected embedding endpoint {} for {} ms", url, TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return url;
+        }
+    }
+}
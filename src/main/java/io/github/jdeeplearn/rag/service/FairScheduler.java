@@ -0,0 +1,166 @@
+package io.github.jdeeplearn.rag.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Worker pool shared by several ingestion lanes (one per tenant), dispatching
+ * their tasks by weighted fair queueing.
+ *
+ * Every lane queues its tasks in FIFO order. An idle worker takes the next task of
+ * the non-empty lane with the lowest virtual time, which then advances by
+ * 1/weight (stride scheduling): while two lanes both have work, a lane of weight 3
+ * gets three tasks for every task of a lane of weight 1, however long either
+ * backlog is. A lane that was idle rejoins at the current virtual time, so idle
+ * periods earn no credit either.
+ */
+public final class FairScheduler implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(FairScheduler.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final List<Lane> lanes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private double virtualTime;
+    private int queued;
+    private boolean closed;
+
+    public FairScheduler(String name, int threads) {
+        for (int i = 0; i < Math.max(1, threads); i++) {
+            Thread worker = new Thread(this::work, name + "-" + (i + 1));
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Executor for the named lane, created on first use with the given weight.
+     */
+    public Executor lane(String name, double weight) {
+        if (!(weight > 0)) {
+            throw new IllegalArgumentException("Lane weight must be > 0, was " + weight + " for '" + name + "'");
+        }
+        lock.lock();
+        try {
+            for (Lane lane : lanes) {
+                if (lane.name.equals(name)) {
+                    return lane;
+                }
+            }
+            Lane lane = new Lane(name, weight);
+            lanes.add(lane);
+            return lane;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting tasks, lets the workers finish what is queued (up to 30 s),
+     * then interrupts them.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        try {
+            for (Thread worker : workers) {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.forEach(Thread::interrupt);
+    }
+
+    private void work() {
+        while (true) {
+            Runnable task;
+            lock.lock();
+            try {
+                while (queued == 0 && !closed) {
+                    workAvailable.await();
+                }
+                if (queued == 0) {
+                    return;
+                }
+                task = next();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Ingestion task failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Takes the head of the non-empty lane with the lowest virtual time; ties go
+     * to the lane created first. Called with the lock held.
+     */
+    private Runnable next() {
+        Lane selected = null;
+        for (Lane lane : lanes) {
+            if (!lane.queue.isEmpty() && (selected == null || lane.pass < selected.pass)) {
+                selected = lane;
+            }
+        }
+        virtualTime = selected.pass;
+        selected.pass += 1 / selected.weight;
+        queued--;
+        return selected.queue.poll();
+    }
+
+    private final class Lane implements Executor {
+
+        private final String name;
+        private final double weight;
+        private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        private double pass;
+
+        private Lane(String name, double weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            lock.lock();
+            try {
+                if (closed) {
+                    throw new RejectedExecutionException("Scheduler closed, lane '" + name + "'");
+                }
+                if (queue.isEmpty()) {
+                    pass = Math.max(pass, virtualTime);
+                }
+                queue.add(task);
+                queued++;
+                workAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.model.StoredFaq;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Compares a source FAQ with its stored counterpart and decides how much work it needs:
+ *  - NEW: not stored yet, embed and insert
+ *  - REEMBED: question, embedding model or stored dimension changed, embed and replace the whole document
+ *  - TEXT_ONLY: only answer/image/link/category changed, sub-document update, no embedding
+ *  - UNCHANGED: nothing to do
+ *  - UNKNOWN: stored state was not consulted, embed and overwrite
+ */
+public class FaqChangeClassifier {
+
+    public enum ChangeType {
+        NEW, REEMBED, TEXT_ONLY, UNCHANGED, UNKNOWN
+    }
+
+    public record Classification(ChangeType type, Map<String, String> changedFields) {
+
+        static final Classification NEW = new Classification(ChangeType.NEW, Map.of());
+        static final Classification REEMBED = new Classification(ChangeType.REEMBED, Map.of());
+        static final Classification UNCHANGED = new Classification(ChangeType.UNCHANGED, Map.of());
+        static final Classification UNKNOWN = new Classification(ChangeType.UNKNOWN, Map.of());
+    }
+
+    private final String modelName;
+    private final int storedDim;
+
+    /**
+     * @param storedDim dimension of newly stored vectors; 0 skips the comparison
+     */
+    public FaqChangeClassifier(String modelName, int storedDim) {
+        this.modelName = modelName;
+        this.storedDim = storedDim;
+    }
+
+    public Classification classify(FaqInput input, Optional<StoredFaq> stored) {
+        if (stored.isEmpty()) {
+            return Classification.NEW;
+        }
+        StoredFaq current = stored.get();
+
+        if (!Objects.equals(input.question(), current.question())
+                || (current.modelName() != null && !current.modelName().equals(modelName))
+                || (storedDim > 0 && current.storedDim() > 0 && current.storedDim() != storedDim)) {
+            return Classification.REEMBED;
+        }
+
+        Map<String, String> changed = new LinkedHashMap<>();
+        putIfChanged(changed, "category", input.category(), current.category());
+        putIfChanged(changed, "answer", input.answer(), current.answer());
+        putIfChanged(changed, "image", input.image(), current.image());
+        putIfChanged(changed, "link", input.link(), current.link());
+
+        return changed.isEmpty()
+                ? Classification.UNCHANGED
+                : new Classification(ChangeType.TEXT_ONLY, changed);
+    }
+
+    private static void putIfChanged(Map<String, String> changed, String field, String source, String stored) {
+        if (!Objects.equals(source, stored)) {
+            changed.put(field, source);
+        }
+    }
+}
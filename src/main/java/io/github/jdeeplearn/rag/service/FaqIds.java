@@ -0,0 +1,41 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Stable document keys for FAQ inputs.
+ *
+ * An explicit "id" in the source wins. Otherwise the key is a name-based UUID of the
+ * normalized question, so re-running the loader addresses the same documents and
+ * change detection can compare against what is stored. A derived key changes with
+ * the question, so an edited question without an id becomes a new document and the
+ * old one stays until it is removed (e.g. by sync mode).
+ */
+public final class FaqIds {
+
+    /**
+     * Log4j ThreadContext key holding the key of the FAQ being processed.
+     */
+    public static final String CONTEXT_KEY = "faqId";
+
+    private FaqIds() {
+    }
+
+    public static String of(FaqInput input) {
+        if (input.id() != null && !input.id().isBlank()) {
+            return input.id().trim();
+        }
+        return "faq-" + UUID.nameUUIDFromBytes(normalize(input.question()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Case- and whitespace-insensitive form of a question; also used to key query caches.
+     */
+    public static String normalize(String question) {
+        return question.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
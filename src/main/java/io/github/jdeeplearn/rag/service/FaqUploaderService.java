@@ -2,106 +2,422 @@ package io.github.jdeeplearn.rag.service;
 
 import io.github.jdeeplearn.rag.index.VectorSearchIndexManager;
 import io.github.jdeeplearn.rag.model.FaqDocument;
-import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.service.FaqChangeClassifier.ChangeType;
+import io.github.jdeeplearn.rag.service.FaqChangeClassifier.Classification;
+import io.github.jdeeplearn.rag.service.UploadProgress.Outcome;
+import io.github.jdeeplearn.rag.sink.FaqSink;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.CloseableThreadContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Orchestrates FAQ ingestion:
- *  1. Embedding generation.
- *  2. Document persistence.
- *  3. Index initialization.
+ *  1. Change detection against the stored document (when the sink supports it).
+ *  2. Embedding generation, only for new records or changed questions.
+ *  3. Document persistence through the configured FaqSink.
+ *  4. Index initialization (once per process).
+ *
+ * Nothing is logged per FAQ at INFO: while an upload runs, a progress line with rate,
+ * FAQs in flight, failures and ETA is logged every uploader.progress-interval-ms.
+ * Failures are still logged one by one.
+ *
+ * uploader.max-docs-per-second caps the rate at which FAQs are processed. With
+ * embedding.batching.enabled, questions are embedded through the EmbeddingBatcher.
+ * With vector.stored-dim below embedding.dim, vectors are truncated to that prefix
+ * and re-normalized before they are stored (see VectorTruncation).
+ *
+ * Work starts before the sink and the index are ready. Without change detection,
+ * workers embed ahead while Couchbase is still bootstrapping and park up to
+ * uploader.bootstrap.buffer-size finished documents until both are ready; when the
+ * buffer is full, no further FAQs are handed out. With change detection (or a buffer
+ * size of 0), FAQs are handed to the workers only once the sink is ready, so unchanged
+ * and text-only FAQs are never embedded. A failed index request does not block writes
+ * and is retried by the next upload.
+ *
+ * Waiting for the throttle, the sink or buffer space happens in the calling thread
+ * before a FAQ is handed to the executor, never in a worker: on a shared FairScheduler
+ * a throttled or bootstrapping tenant holds no workers that other tenants could use.
+ *
+ * The worker pool lives as long as the application, so the service can be called
+ * repeatedly (batch run, ingestion jobs, watch mode) without re-creating threads.
+ * With tenants configured, there is no private pool: this service and every tenant's
+ * uploader run on lanes of the shared FairScheduler.
  */
 @Service
-public class FaqUploaderService {
+public class FaqUploaderService implements ApplicationEventPublisherAware {
 
     private static final Logger log = LogManager.getLogger(FaqUploaderService.class);
 
+    // FairScheduler lane of the default collection when tenants are configured
+    public static final String DEFAULT_LANE = "default";
+    // Bean name of that lane's executor (see TenantConfig)
+    public static final String DEFAULT_LANE_BEAN = "defaultIngestionLane";
+
     private final EmbeddingClient embeddingClient;
-    private final CouchbaseFaqRepository repository;
+    private final EmbeddingBatcher embeddingBatcher;
+    private final FaqSink sink;
     private final VectorSearchIndexManager indexManager;
-    private final ExecutorService executor;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
     private final int embeddingDim;
+    private final int storedDim;
+    private final boolean changeDetection;
+    private final FaqChangeClassifier classifier;
+    private final boolean embedAhead;
+    private final Semaphore bootstrapBuffer;
+    private final Throttle throttle;
+    private volatile CompletableFuture<Void> writeGate;
+    private final AtomicBoolean derivedIdsWarned = new AtomicBoolean();
+    private ApplicationEventPublisher events = event -> { };
+    private long progressIntervalMs = 10_000;
 
+    /**
+     * With a shared executor (the default collection's FairScheduler lane when tenants are
+     * configured), "threads" is ignored and the executor is not shut down with the service.
+     */
+    @Autowired
     public FaqUploaderService(
             EmbeddingClient embeddingClient,
-            CouchbaseFaqRepository repository,
+            @Nullable EmbeddingBatcher embeddingBatcher,
+            FaqSink sink,
             VectorSearchIndexManager indexManager,
+            @Qualifier(DEFAULT_LANE_BEAN) @Nullable Executor sharedExecutor,
             @Value("${embedding.dim:768}") int embeddingDim,
-            @Value("${uploader.threads:4}") int threads
+            @Value("${vector.stored-dim:0}") int storedDim,
+            @Value("${uploader.threads:4}") int threads,
+            @Value("${uploader.change-detection:true}") boolean changeDetection,
+            @Value("${uploader.bootstrap.buffer-size:1000}") int bootstrapBufferSize,
+            @Value("${uploader.max-docs-per-second:0}") double maxDocsPerSecond
     ) {
         this.embeddingClient = embeddingClient;
-        this.repository = repository;
+        this.embeddingBatcher = embeddingBatcher;
+        this.sink = sink;
         this.indexManager = indexManager;
         this.embeddingDim = embeddingDim;
-        this.executor = Executors.newFixedThreadPool(threads);
+        this.storedDim = VectorTruncation.storedDim(embeddingDim, storedDim);
+        this.changeDetection = changeDetection && sink.supportsChangeDetection();
+        this.classifier = new FaqChangeClassifier(embeddingClient.getModelName(), this.storedDim);
+        this.ownedExecutor = sharedExecutor == null ? Executors.newFixedThreadPool(threads) : null;
+        this.executor = sharedExecutor != null ? sharedExecutor : ownedExecutor;
+        // Embedding before classification would embed unchanged and text-only FAQs too
+        this.embedAhead = bootstrapBufferSize > 0 && !this.changeDetection;
+        this.bootstrapBuffer = new Semaphore(Math.max(0, bootstrapBufferSize));
+        this.throttle = new Throttle(maxDocsPerSecond);
+        if (throttle.isLimited()) {
+            log.info("Uploads throttled to {} FAQs", throttle);
+        }
+        if (this.storedDim < embeddingDim) {
+            log.info("Storing the first {} of {} embedding dimensions", this.storedDim, embeddingDim);
+        }
     }
 
+    /**
+     * One FAQ from the source file. "id" is optional; without it the document key
+     * is derived from the question (see FaqIds).
+     */
     public record FaqInput(
             String category,
             String question,
             String answer,
             String image,
-            String link
-    ) {}
+            String link,
+            String id
+    ) {
+        public FaqInput(String category, String question, String answer, String image, String link) {
+            this(category, question, answer, image, link, null);
+        }
+    }
+
+    /**
+     * Upload multiple FAQs and wait until all of them are processed.
+     */
+    public UploadProgress uploadFaqs(List<FaqInput> faqs) {
+        return uploadFaqs(faqs, new UploadProgress());
+    }
 
     /**
-     * Upload multiple FAQs into Couchbase.
+     * Upload multiple FAQs, recording outcomes into the given progress as they happen,
+     * and wait until all of them are processed. Safe to call concurrently.
      */
-    public void uploadFaqs(List<FaqInput> faqs) {
+    public UploadProgress uploadFaqs(List<FaqInput> faqs, UploadProgress progress) {
         log.info("Starting upload of {} FAQ entries", faqs.size());
+        long start = System.nanoTime();
 
-        // Ensure vector index exists first
-        indexManager.ensureIndex();
+        CompletableFuture<Void> gate = writeGate();
+        warnOnDerivedIds(faqs);
 
-        faqs.forEach(faq ->
-                executor.submit(() -> processFaq(faq))
-        );
+        progress.addSubmitted(faqs.size());
+        CountDownLatch done = new CountDownLatch(faqs.size());
+        try (UploadProgressReporter ignored = UploadProgressReporter.start(progress, progressIntervalMs)) {
+            for (FaqInput faq : faqs) {
+                // Background loads (e.g. migrations) must leave embedding, KV and FTS capacity to live traffic
+                throttle.acquire();
+                dispatch(faq, gate, progress, done);
+            }
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for FAQ upload; {} entries still pending", done.getCount());
+        }
 
-        executor.shutdown();
-        while (!executor.isTerminated()) {
-            try {
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+        sink.flush();
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("FAQ upload completed in {} ms ({} FAQs/s): {}", elapsedMs, faqs.size() * 1000L / elapsedMs, progress);
+        if (progress.getWritten() > 0 || progress.getPatched() > 0) {
+            events.publishEvent(new FaqsIngestedEvent(progress.getWritten(), progress.getPatched()));
+        }
+        return progress;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    /**
+     * Interval of the progress line logged while an upload runs; 0 disables it.
+     */
+    @Value("${uploader.progress-interval-ms:10000}")
+    public void setProgressIntervalMs(long progressIntervalMs) {
+        this.progressIntervalMs = progressIntervalMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownedExecutor == null) {
+            return;
+        }
+        ownedExecutor.shutdown();
+        try {
+            if (!ownedExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                ownedExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ownedExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Completes when the sink accepts writes and the vector index request has finished.
+     * Created on first use; the index request runs in the background, once per process.
+     * A failed index request does not hold writes back, but the gate is dropped so the
+     * next upload requests the index again.
+     */
+    private CompletableFuture<Void> writeGate() {
+        CompletableFuture<Void> gate = writeGate;
+        if (gate == null) {
+            synchronized (this) {
+                gate = writeGate;
+                if (gate == null) {
+                    // Not needed for file exports
+                    CompletableFuture<Boolean> index = sink.needsIndex()
+                            ? CompletableFuture.supplyAsync(indexManager::ensureIndex)
+                            : CompletableFuture.completedFuture(true);
+                    CompletableFuture<Void> created = CompletableFuture.allOf(
+                            sink.ready(), index.exceptionally(e -> false));
+                    writeGate = created;
+                    index.whenComplete((ensured, error) -> {
+                        if (error != null || !Boolean.TRUE.equals(ensured)) {
+                            forgetWriteGate(created);
+                        }
+                    });
+                    gate = created;
+                }
             }
         }
+        return gate;
+    }
 
-        log.info("FAQ upload completed successfully.");
+    private synchronized void forgetWriteGate(CompletableFuture<Void> gate) {
+        if (writeGate == gate) {
+            writeGate = null;
+        }
     }
 
-    private void processFaq(FaqInput input) {
+    /**
+     * Waits for the write gate; false (after logging) when it failed, e.g. because the
+     * sink could not start.
+     */
+    private static boolean awaitGate(CompletableFuture<Void> gate, FaqInput input) {
         try {
-            String id = "faq-" + UUID.randomUUID();
-            float[] vector = embeddingClient.embed(input.question());
-
-            FaqDocument doc = FaqDocument.of(
-                    id,
-                    input.category(),
-                    input.question(),
-                    input.answer(),
-                    input.image(),
-                    input.link(),
-                    vector,
-                    embeddingClient.getProvider(),
-                    embeddingClient.getModelName(),
-                    embeddingDim,
-                    "cosine",
-                    "faq-loader",
-                    "v1.0.0"
-            );
-
-            repository.insertFaq(doc);
+            gate.join();
+            return true;
+        } catch (CompletionException | CancellationException e) {
+            log.error("Sink not available for FAQ '{}': {}", input.question(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Keys derived from the question change with it, so change detection cannot link an
+     * edited question to its stored document: the old one is left behind (see FaqIds).
+     */
+    private void warnOnDerivedIds(List<FaqInput> faqs) {
+        if (!changeDetection || derivedIdsWarned.get()) {
+            return;
+        }
+        long derived = faqs.stream().filter(faq -> faq.id() == null || faq.id().isBlank()).count();
+        if (derived > 0 && derivedIdsWarned.compareAndSet(false, true)) {
+            log.warn("{} FAQs have no id; editing their question stores a new document and leaves the old one "
+                    + "in place until sync mode removes it", derived);
+        }
+    }
+
+    /**
+     * Hands the FAQ to the executor once a worker can run it without waiting: right
+     * away when the sink is ready or when embedding ahead, otherwise when the gate
+     * completes. Blocks the caller while the bootstrap buffer is full.
+     */
+    private void dispatch(FaqInput input, CompletableFuture<Void> gate, UploadProgress progress, CountDownLatch done)
+            throws InterruptedException {
+        if (gate.isDone()) {
+            executor.execute(() -> process(input, gate, progress, done));
+        } else if (!embedAhead) {
+            // Embedding ahead disabled: queue the FAQ once the sink is ready
+            gate.whenComplete((ignored, error) -> executor.execute(() -> process(input, gate, progress, done)));
+        } else {
+            // Still bootstrapping: embed now, persist once the sink is ready
+            bootstrapBuffer.acquire();
+            executor.execute(() -> embedAhead(input, gate, progress, done));
+        }
+    }
+
+    /**
+     * Runs with the gate completed, so awaitGate only reports a failed one.
+     */
+    private void process(FaqInput input, CompletableFuture<Void> gate, UploadProgress progress, CountDownLatch done) {
+        complete(awaitGate(gate, input) ? processFaq(input) : Outcome.FAILED, progress, done);
+    }
+
+    /**
+     * Embeds while the sink is bootstrapping and persists from the executor once it is
+     * ready. Holds a bootstrap buffer permit (taken by dispatch) until then.
+     */
+    private void embedAhead(FaqInput input, CompletableFuture<Void> gate, UploadProgress progress, CountDownLatch done) {
+        FaqDocument embedded;
+        try {
+            embedded = buildDocument(FaqIds.of(input), input);
         } catch (Exception e) {
             log.error("Error processing FAQ '{}': {}", input.question(), e.getMessage(), e);
+            bootstrapBuffer.release();
+            complete(Outcome.FAILED, progress, done);
+            return;
         }
+
+        gate.whenCompleteAsync((ignored, error) -> {
+            try {
+                complete(awaitGate(gate, input) ? persistEmbedded(input, embedded) : Outcome.FAILED, progress, done);
+            } finally {
+                bootstrapBuffer.release();
+            }
+        }, executor);
+    }
+
+    private static void complete(Outcome outcome, UploadProgress progress, CountDownLatch done) {
+        progress.record(outcome);
+        done.countDown();
+    }
+
+    private Outcome processFaq(FaqInput input) {
+        try {
+            String id = FaqIds.of(input);
+            return persist(input, id, classify(input, id), null);
+        } catch (Exception e) {
+            log.error("Error processing FAQ '{}': {}", input.question(), e.getMessage(), e);
+            return Outcome.FAILED;
+        }
+    }
+
+    private Outcome persistEmbedded(FaqInput input, FaqDocument embedded) {
+        try {
+            return persist(input, embedded.getId(), classify(input, embedded.getId()), embedded);
+        } catch (Exception e) {
+            log.error("Error processing FAQ '{}': {}", input.question(), e.getMessage(), e);
+            return Outcome.FAILED;
+        }
+    }
+
+    private Classification classify(FaqInput input, String id) {
+        return changeDetection
+                ? classifier.classify(input, sink.find(id))
+                : Classification.UNKNOWN;
+    }
+
+    /**
+     * Applies the cheapest sufficient update. "embedded" is a document built ahead of
+     * classification (during bootstrap), or null to embed only if needed.
+     */
+    private Outcome persist(FaqInput input, String id, Classification change, FaqDocument embedded) {
+        switch (change.type()) {
+            case UNCHANGED -> {
+                log.debug("FAQ [{}] unchanged, skipping", id);
+                return Outcome.UNCHANGED;
+            }
+            case TEXT_ONLY -> {
+                // Question unchanged: patch text fields, keep the stored vector
+                sink.updateFields(id, change.changedFields());
+                return Outcome.PATCHED;
+            }
+            default -> {
+                // NEW, REEMBED and UNKNOWN need a fresh embedding
+            }
+        }
+
+        FaqDocument doc = embedded != null ? embedded : buildDocument(id, input);
+
+        if (change.type() == ChangeType.NEW) {
+            sink.write(doc);
+        } else {
+            sink.replace(doc);
+        }
+        return Outcome.WRITTEN;
+    }
+
+    private FaqDocument buildDocument(String id, FaqInput input) {
+        float[] vector;
+        try (CloseableThreadContext.Instance ignored = CloseableThreadContext.put(FaqIds.CONTEXT_KEY, id)) {
+            vector = embeddingBatcher != null
+                    ? embeddingBatcher.embed(input.question())
+                    : embeddingClient.embed(input.question());
+        }
+
+        return FaqDocument.of(
+                id,
+                input.category(),
+                input.question(),
+                input.answer(),
+                input.image(),
+                input.link(),
+                // Only a vector of the expected model dim is truncated; anything else fails validation
+                vector.length == embeddingDim ? VectorTruncation.truncate(vector, storedDim) : vector,
+                embeddingClient.getProvider(),
+                embeddingClient.getModelName(),
+                embeddingDim,
+                storedDim,
+                "cosine",
+                "faq-loader",
+                "v1.0.0"
+        );
     }
 }
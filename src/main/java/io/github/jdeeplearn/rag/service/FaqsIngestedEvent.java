@@ -0,0 +1,7 @@
+package io.github.jdeeplearn.rag.service;
+
+/**
+ * Published after an upload that changed stored documents (written or patched),
+ * so query-side caches can drop results that may now be stale.
+ */
+public record FaqsIngestedEvent(long written, long patched) {}
@@ -0,0 +1,106 @@
+package io.github.jdeeplearn.rag.service;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A batch or stream of FAQs submitted to the long-running ingestion service.
+ * Progress counters are live while the job runs.
+ */
+public class IngestionJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String kind;
+    private final String tenant;
+    private final Instant submittedAt = Instant.now();
+    private final UploadProgress progress = new UploadProgress();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    // Chunks of one job are uploaded strictly in order
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+    IngestionJob(String id, String kind) {
+        this(id, kind, null);
+    }
+
+    IngestionJob(String id, String kind, String tenant) {
+        this.id = id;
+        this.kind = kind;
+        this.tenant = tenant;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Target tenant, or null for the default collection.
+     */
+    public String getTenant() {
+        return tenant;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public UploadProgress getProgress() {
+        return progress;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    synchronized CompletableFuture<Void> chain(Runnable step, Executor executor) {
+        tail = tail.thenRunAsync(step, executor);
+        return tail;
+    }
+
+    void markRunning() {
+        if (status == Status.QUEUED) {
+            startedAt = Instant.now();
+            status = Status.RUNNING;
+        }
+    }
+
+    void markCompleted() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    void markFailed(Throwable cause) {
+        finishedAt = Instant.now();
+        error = cause.toString();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,208 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.tenant.Tenant;
+import io.github.jdeeplearn.rag.tenant.TenantRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs FAQ batches and streams as asynchronous jobs on top of the warm
+ * FaqUploaderService (uploader.mode=service).
+ *
+ * Stream jobs are registered as soon as they are submitted, then cut into chunks
+ * that are uploaded while the request body is still arriving; the body is read
+ * no faster than chunks are uploaded. Finished
+ * jobs are kept for status queries up to a fixed count.
+ *
+ * Jobs may target a tenant (see TenantConfig). Every tenant gets its own
+ * uploader.jobs.max-concurrent job slots, so jobs of a large tenant never queue
+ * ahead of another tenant's; their FAQs then share the workers fairly.
+ */
+@Service
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "service")
+public class IngestionJobService {
+
+    private static final Logger log = LogManager.getLogger(IngestionJobService.class);
+
+    private final FaqUploaderService uploaderService;
+    private final TenantRegistry tenants;
+    private final int maxConcurrentJobs;
+    // Job slots per tenant; "" is the default collection
+    private final Map<String, ExecutorService> jobExecutors = new ConcurrentHashMap<>();
+    private final int streamChunkSize;
+    private final int retainFinished;
+    private final Map<String, IngestionJob> jobs = new ConcurrentHashMap<>();
+    // Stream bodies still being read; cancelled on shutdown
+    private final Disposable.Composite streams = Disposables.composite();
+
+    @Autowired
+    public IngestionJobService(
+            FaqUploaderService uploaderService,
+            @Nullable TenantRegistry tenants,
+            @Value("${uploader.jobs.max-concurrent:2}") int maxConcurrentJobs,
+            @Value("${uploader.jobs.stream-chunk-size:500}") int streamChunkSize,
+            @Value("${uploader.jobs.retain-finished:100}") int retainFinished
+    ) {
+        this.uploaderService = uploaderService;
+        this.tenants = tenants;
+        this.maxConcurrentJobs = maxConcurrentJobs;
+        this.streamChunkSize = streamChunkSize;
+        this.retainFinished = retainFinished;
+    }
+
+    /**
+     * Queue a complete batch; returns immediately with the job handle.
+     */
+    public IngestionJob submitBatch(List<FaqInput> faqs) {
+        return submitBatch(null, faqs);
+    }
+
+    /**
+     * Queue a complete batch for the given tenant (null for the default collection).
+     *
+     * @throws IllegalArgumentException if the tenant is not configured
+     */
+    public IngestionJob submitBatch(String tenant, List<FaqInput> faqs) {
+        FaqUploaderService uploader = uploaderFor(tenant);
+        IngestionJob job = register("batch", tenant);
+        appendChunk(job, uploader, faqs);
+        finish(job);
+        log.info("Accepted batch job {} with {} FAQs{}", job.getId(), faqs.size(), forTenant(tenant));
+        return job;
+    }
+
+    /**
+     * Register a stream job and return its handle immediately; the stream is then
+     * uploaded chunk by chunk in the background as it arrives, reading ahead at most
+     * one chunk while the previous one uploads.
+     */
+    public IngestionJob submitStream(Flux<FaqInput> faqs) {
+        return submitStream(null, faqs);
+    }
+
+    /**
+     * Stream job for the given tenant (null for the default collection).
+     *
+     * @throws IllegalArgumentException if the tenant is not configured
+     */
+    public IngestionJob submitStream(String tenant, Flux<FaqInput> faqs) {
+        FaqUploaderService uploader = uploaderFor(tenant);
+        IngestionJob job = register("stream", tenant);
+        streams.add(faqs.buffer(streamChunkSize)
+                // Backpressure: the next chunk is requested once the previous one is uploaded,
+                // so a fast client cannot queue its whole body in memory. A failed chunk fails
+                // the job (see finish), not the stream.
+                .concatMap(chunk -> Mono.fromFuture(
+                        appendChunk(job, uploader, chunk).exceptionally(e -> null), true), 1)
+                .subscribe(
+                        ignored -> { },
+                        e -> {
+                            job.chain(() -> {
+                                throw new CompletionException("Input stream failed", e);
+                            }, jobExecutor(job));
+                            finish(job);
+                        },
+                        () -> {
+                            finish(job);
+                            log.info("Received stream job {}{}", job.getId(), forTenant(tenant));
+                        }));
+        log.info("Accepted stream job {}{}", job.getId(), forTenant(tenant));
+        return job;
+    }
+
+    public Optional<IngestionJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<IngestionJob> list() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(IngestionJob::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.dispose();
+        jobExecutors.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    private FaqUploaderService uploaderFor(String tenant) {
+        if (tenant == null || tenant.isBlank()) {
+            return uploaderService;
+        }
+        return Optional.ofNullable(tenants)
+                .flatMap(registry -> registry.find(tenant))
+                .map(Tenant::uploader)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown tenant '" + tenant + "'"));
+    }
+
+    private ExecutorService jobExecutor(IngestionJob job) {
+        String tenant = job.getTenant() == null ? "" : job.getTenant();
+        return jobExecutors.computeIfAbsent(tenant, ignored -> Executors.newFixedThreadPool(maxConcurrentJobs));
+    }
+
+    private static String forTenant(String tenant) {
+        return tenant == null || tenant.isBlank() ? "" : " for tenant '" + tenant + "'";
+    }
+
+    private IngestionJob register(String kind, String tenant) {
+        IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), kind,
+                tenant == null || tenant.isBlank() ? null : tenant);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private CompletableFuture<Void> appendChunk(IngestionJob job, FaqUploaderService uploader, List<FaqInput> chunk) {
+        return job.chain(() -> {
+            job.markRunning();
+            uploader.uploadFaqs(chunk, job.getProgress());
+        }, jobExecutor(job));
+    }
+
+    private void finish(IngestionJob job) {
+        job.chain(job::markRunning, jobExecutor(job)).whenComplete((ignored, error) -> {
+            if (error == null) {
+                job.markCompleted();
+                log.info("Job {} completed: {}", job.getId(), job.getProgress());
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                job.markFailed(cause);
+                log.error("Job {} failed: {}", job.getId(), cause.toString(), cause);
+            }
+            evictFinished();
+        });
+    }
+
+    private void evictFinished() {
+        List<IngestionJob> finished = jobs.values().stream()
+                .filter(IngestionJob::isFinished)
+                .sorted(Comparator.comparing(IngestionJob::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - retainFinished; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+}
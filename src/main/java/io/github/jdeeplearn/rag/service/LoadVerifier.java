@@ -0,0 +1,188 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.model.StoredContent;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.repository.FaqJsonEncoder;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Checks that what a load intended to write is what Couchbase holds.
+ *
+ * Every key of the source is read back with async KV gets, verify.concurrency in
+ * flight, and the raw body is compared without building a JSON tree:
+ *  - the text fields must equal the source record;
+ *  - meta.model_name must be the configured model;
+ *  - question_vector must have the stored dim, finite components and a non-zero
+ *    norm, and unit length (within verify.norm-tolerance) when vectors are truncated
+ *    or verify.unit-norm is set.
+ * Documents that are missing or cannot be read are reported as well.
+ */
+@Service
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+public class LoadVerifier {
+
+    private static final Logger log = LogManager.getLogger(LoadVerifier.class);
+
+    // Marks a document without findings; never reported
+    private static final Mismatch MATCH = new Mismatch("", null, "");
+
+    public enum Reason {
+        MISSING, READ_ERROR, CONTENT, MODEL, DIM, VECTOR
+    }
+
+    public record Mismatch(String id, Reason reason, String detail) {
+    }
+
+    /**
+     * Outcome of one verification: "examples" lists at most verify.report-limit mismatches.
+     */
+    public record VerifyReport(long expected, long matched, Map<Reason, Long> mismatches, List<Mismatch> examples) {
+
+        public long mismatchCount() {
+            return mismatches.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public boolean passed() {
+            return mismatchCount() == 0;
+        }
+    }
+
+    private final CouchbaseFaqRepository repository;
+    private final String modelName;
+    private final int storedDim;
+    private final boolean unitNorm;
+    private final double normTolerance;
+    private final int concurrency;
+    private final int reportLimit;
+
+    public LoadVerifier(
+            CouchbaseFaqRepository repository,
+            @Value("${embedding.model-name}") String modelName,
+            @Value("${embedding.dim:768}") int embeddingDim,
+            @Value("${vector.stored-dim:0}") int storedDim,
+            @Value("${verify.unit-norm:false}") boolean unitNorm,
+            @Value("${verify.norm-tolerance:0.01}") double normTolerance,
+            @Value("${verify.concurrency:128}") int concurrency,
+            @Value("${verify.report-limit:100}") int reportLimit
+    ) {
+        this.repository = repository;
+        this.modelName = modelName;
+        this.storedDim = VectorTruncation.storedDim(embeddingDim, storedDim);
+        // Truncated vectors are always re-normalized, so they must be unit length
+        this.unitNorm = unitNorm || this.storedDim < embeddingDim;
+        this.normTolerance = normTolerance;
+        this.concurrency = Math.max(1, concurrency);
+        this.reportLimit = Math.max(0, reportLimit);
+    }
+
+    /**
+     * Verifies every record of the source; each mismatch is also passed to "onMismatch",
+     * one call at a time.
+     */
+    public VerifyReport verify(List<FaqInput> faqs, Consumer<Mismatch> onMismatch) {
+        // The same key may occur several times; the stored document may match any of them
+        Map<String, List<FaqInput>> expected = new HashMap<>(faqs.size() * 2);
+        for (FaqInput faq : faqs) {
+            expected.computeIfAbsent(FaqIds.of(faq), ignored -> new ArrayList<>(1)).add(faq);
+        }
+
+        Map<Reason, LongAdder> counts = new EnumMap<>(Reason.class);
+        for (Reason reason : Reason.values()) {
+            counts.put(reason, new LongAdder());
+        }
+        LongAdder matched = new LongAdder();
+        List<Mismatch> examples = new ArrayList<>();
+        long start = System.nanoTime();
+
+        Flux.fromIterable(expected.entrySet())
+                .flatMap(entry -> repository.readRaw(entry.getKey())
+                        .map(body -> check(entry.getKey(), entry.getValue(), FaqJsonEncoder.readContent(body)))
+                        .defaultIfEmpty(new Mismatch(entry.getKey(), Reason.MISSING, "not stored"))
+                        .onErrorResume(e -> Mono.just(new Mismatch(entry.getKey(), Reason.READ_ERROR, e.toString()))),
+                        concurrency)
+                .doOnNext(mismatch -> {
+                    if (mismatch == MATCH) {
+                        matched.increment();
+                        return;
+                    }
+                    counts.get(mismatch.reason()).increment();
+                    if (examples.size() < reportLimit) {
+                        examples.add(mismatch);
+                    }
+                    onMismatch.accept(mismatch);
+                })
+                .blockLast();
+
+        Map<Reason, Long> mismatches = new EnumMap<>(Reason.class);
+        counts.forEach((reason, count) -> {
+            if (count.sum() > 0) {
+                mismatches.put(reason, count.sum());
+            }
+        });
+        VerifyReport report = new VerifyReport(expected.size(), matched.sum(), mismatches, List.copyOf(examples));
+        log.info("Verified {} FAQs in {} ms: {} match, mismatches {}",
+                report.expected(), (System.nanoTime() - start) / 1_000_000, report.matched(), mismatches);
+        return report;
+    }
+
+    private Mismatch check(String id, List<FaqInput> candidates, StoredContent stored) {
+        if (stored.vectorDim() != storedDim) {
+            return new Mismatch(id, Reason.DIM, "expected " + storedDim + " dims, found " + stored.vectorDim());
+        }
+        if (!stored.vectorFinite() || stored.vectorNorm() == 0) {
+            return new Mismatch(id, Reason.VECTOR, stored.vectorFinite() ? "zero vector" : "non-finite components");
+        }
+        if (unitNorm && Math.abs(stored.vectorNorm() - 1) > normTolerance) {
+            return new Mismatch(id, Reason.VECTOR, String.format("norm %.4f, expected 1", stored.vectorNorm()));
+        }
+        if (!Objects.equals(modelName, stored.modelName())) {
+            return new Mismatch(id, Reason.MODEL, "model " + stored.modelName());
+        }
+
+        String differences = null;
+        for (FaqInput candidate : candidates) {
+            differences = differingFields(candidate, stored);
+            if (differences.isEmpty()) {
+                return MATCH;
+            }
+        }
+        return new Mismatch(id, Reason.CONTENT, "differs in " + differences);
+    }
+
+    private static String differingFields(FaqInput source, StoredContent stored) {
+        StringJoiner fields = new StringJoiner(",");
+        if (!Objects.equals(source.category(), stored.category())) {
+            fields.add("category");
+        }
+        if (!Objects.equals(source.question(), stored.question())) {
+            fields.add("question");
+        }
+        if (!Objects.equals(source.answer(), stored.answer())) {
+            fields.add("answer");
+        }
+        if (!Objects.equals(source.image(), stored.image())) {
+            fields.add("image");
+        }
+        if (!Objects.equals(source.link(), stored.link())) {
+            fields.add("link");
+        }
+        return fields.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Removes stored FAQs that are no longer in the source.
+ *
+ * Every key in the collection is enumerated with a KV range scan and compared with
+ * the keys of the run; the orphans are removed in batches of sync.batch-size, with
+ * sync.concurrency removals in flight per batch. Safeguards:
+ *  - sync.dry-run only reports what would be removed;
+ *  - nothing is removed when the orphans exceed sync.max-delete-ratio of the stored
+ *    documents, which usually means a truncated or wrong input file.
+ */
+@Service
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+public class StaleFaqPruner {
+
+    private static final Logger log = LogManager.getLogger(StaleFaqPruner.class);
+
+    private final CouchbaseFaqRepository repository;
+    private final boolean dryRun;
+    private final int batchSize;
+    private final int concurrency;
+    private final double maxDeleteRatio;
+    private final int reportLimit;
+
+    public StaleFaqPruner(
+            CouchbaseFaqRepository repository,
+            @Value("${sync.dry-run:true}") boolean dryRun,
+            @Value("${sync.batch-size:1000}") int batchSize,
+            @Value("${sync.concurrency:32}") int concurrency,
+            @Value("${sync.max-delete-ratio:0.5}") double maxDeleteRatio,
+            @Value("${sync.report-limit:100}") int reportLimit
+    ) {
+        this.repository = repository;
+        this.dryRun = dryRun;
+        this.batchSize = Math.max(1, batchSize);
+        this.concurrency = Math.max(1, concurrency);
+        this.maxDeleteRatio = maxDeleteRatio;
+        this.reportLimit = Math.max(0, reportLimit);
+    }
+
+    /**
+     * Outcome of one prune: "orphans" lists at most sync.report-limit of the keys found.
+     */
+    public record PruneReport(long stored, long orphanCount, long removed, boolean dryRun, List<String> orphans) {
+    }
+
+    /**
+     * Removes (or, in dry-run mode, reports) every stored FAQ whose key is not in "seenIds".
+     */
+    public PruneReport prune(Set<String> seenIds) {
+        long stored = 0;
+        List<String> orphans = new ArrayList<>();
+        try (Stream<String> ids = repository.scanIds()) {
+            for (String id : (Iterable<String>) ids::iterator) {
+                stored++;
+                if (!seenIds.contains(id)) {
+                    orphans.add(id);
+                }
+            }
+        }
+        log.info("Scanned {} stored FAQs: {} not in the source", stored, orphans.size());
+
+        List<String> sample = List.copyOf(orphans.subList(0, Math.min(reportLimit, orphans.size())));
+        if (dryRun) {
+            log.info("Dry run: would remove {} FAQs{}", orphans.size(), sample.isEmpty() ? "" : ", e.g. " + sample);
+            return new PruneReport(stored, orphans.size(), 0, true, sample);
+        }
+        if (orphans.size() > maxDeleteRatio * stored) {
+            throw new IllegalStateException(String.format(
+                    "Refusing to remove %d of %d stored FAQs (sync.max-delete-ratio=%s)",
+                    orphans.size(), stored, maxDeleteRatio));
+        }
+
+        long removed = 0;
+        for (int from = 0; from < orphans.size(); from += batchSize) {
+            List<String> batch = orphans.subList(from, Math.min(from + batchSize, orphans.size()));
+            removed += repository.removeAll(batch, concurrency);
+            log.info("Removed {} of {} stale FAQs", removed, orphans.size());
+        }
+        return new PruneReport(stored, orphans.size(), removed, false, sample);
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.jdeeplearn.rag.service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces callers to a fixed rate (permits per second); 0 or less disables pacing.
+ *
+ * Each acquire() reserves the next free slot and sleeps until it is due, so bursts
+ * are smoothed out instead of being let through and then stalled.
+ */
+public final class Throttle {
+
+    private final long intervalNanos;
+    private long nextFreeNanos;
+
+    public Throttle(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? Math.round(1_000_000_000.0 / permitsPerSecond) : 0;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    public static Throttle unlimited() {
+        return new Throttle(0);
+    }
+
+    public boolean isLimited() {
+        return intervalNanos > 0;
+    }
+
+    public void acquire() {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long slot;
+        synchronized (this) {
+            long now = System.nanoTime();
+            // Idle time is not banked: at most one permit is available immediately
+            slot = Math.max(nextFreeNanos, now);
+            nextFreeNanos = slot + intervalNanos;
+        }
+        long waitNanos;
+        while ((waitNanos = slot - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(waitNanos);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return intervalNanos == 0
+                ? "unlimited"
+                : String.format(Locale.ROOT, "%.1f/s", TimeUnit.SECONDS.toNanos(1) / (double) intervalNanos);
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.jdeeplearn.rag.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counters for one upload (or one ingestion job spanning several uploads).
+ */
+public class UploadProgress {
+
+    /**
+     * What happened to a single FAQ.
+     */
+    public enum Outcome {
+        /** Embedded and written as a full document (insert, replace or export). */
+        WRITTEN,
+        /** Text fields updated in place, no embedding. */
+        PATCHED,
+        /** Already up to date. */
+        UNCHANGED,
+        FAILED
+    }
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder patched = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    void addSubmitted(long count) {
+        submitted.add(count);
+    }
+
+    void record(Outcome outcome) {
+        switch (outcome) {
+            case WRITTEN -> written.increment();
+            case PATCHED -> patched.increment();
+            case UNCHANGED -> unchanged.increment();
+            case FAILED -> failed.increment();
+        }
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getProcessed() {
+        return getWritten() + getPatched() + getUnchanged() + getFailed();
+    }
+
+    /**
+     * FAQs that ended up stored as in the source: written, patched or already unchanged.
+     */
+    public long getSucceeded() {
+        return getWritten() + getPatched() + getUnchanged();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getPatched() {
+        return patched.sum();
+    }
+
+    public long getUnchanged() {
+        return unchanged.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "submitted=" + getSubmitted()
+                + ", written=" + getWritten()
+                + ", patched=" + getPatched()
+                + ", unchanged=" + getUnchanged()
+                + ", failed=" + getFailed();
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.jdeeplearn.rag.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic progress line of a running upload, in place of per-FAQ info logs:
+ * processed of submitted, rate over the last interval, FAQs in flight (queued or
+ * being processed), failures and ETA. All reporters share one daemon thread.
+ */
+final class UploadProgressReporter implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(UploadProgressReporter.class);
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "upload-progress");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final UploadProgress progress;
+    private final ScheduledFuture<?> task;
+    private long lastProcessed;
+    private long lastNanos;
+
+    private UploadProgressReporter(UploadProgress progress, long intervalMs) {
+        this.progress = progress;
+        this.lastProcessed = progress.getProcessed();
+        this.lastNanos = System.nanoTime();
+        this.task = intervalMs > 0
+                ? TIMER.scheduleAtFixedRate(this::report, intervalMs, intervalMs, TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    /**
+     * Logs a progress line every intervalMs until closed; intervalMs <= 0 disables it.
+     */
+    static UploadProgressReporter start(UploadProgress progress, long intervalMs) {
+        return new UploadProgressReporter(progress, intervalMs);
+    }
+
+    private void report() {
+        long now = System.nanoTime();
+        long processed = progress.getProcessed();
+        log.info(line(progress.getSubmitted(), processed, progress.getFailed(),
+                (processed - lastProcessed) * 1e9 / Math.max(1, now - lastNanos)));
+        lastProcessed = processed;
+        lastNanos = now;
+    }
+
+    static String line(long submitted, long processed, long failed, double perSecond) {
+        long remaining = Math.max(0, submitted - processed);
+        return String.format(Locale.ROOT, "Upload progress: %d/%d (%d%%), %.0f FAQs/s, %d in flight, %d failed, ETA %s",
+                processed, submitted, submitted > 0 ? processed * 100 / submitted : 100,
+                perSecond, remaining, failed,
+                remaining == 0 ? "0s" : perSecond > 0 ? duration((long) Math.ceil(remaining / perSecond)) : "unknown");
+    }
+
+    private static String duration(long seconds) {
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        if (seconds < 3600) {
+            return String.format("%dm%02ds", seconds / 60, seconds % 60);
+        }
+        return String.format("%dh%02dm", seconds / 3600, seconds % 3600 / 60);
+    }
+
+    @Override
+    public void close() {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+}
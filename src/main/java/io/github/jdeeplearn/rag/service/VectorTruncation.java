@@ -0,0 +1,52 @@
+package io.github.jdeeplearn.rag.service;
+
+/**
+ * Matryoshka-style truncation of embeddings (vector.stored-dim).
+ *
+ * Models trained that way (Granite included) front-load information into the
+ * leading dimensions, so a prefix of e.g. 256 or 384 of 768 dims, re-normalized to
+ * unit length, is still a usable embedding at a small recall cost. Stored vectors,
+ * the index and query vectors must all use the same prefix.
+ */
+public final class VectorTruncation {
+
+    private VectorTruncation() {
+    }
+
+    /**
+     * Dimension that is stored and indexed: the configured stored dim, or the model
+     * dim when it is 0 (not set).
+     *
+     * @throws IllegalArgumentException if the stored dim exceeds the model dim
+     */
+    public static int storedDim(int modelDim, int configuredStoredDim) {
+        if (configuredStoredDim <= 0) {
+            return modelDim;
+        }
+        if (configuredStoredDim > modelDim) {
+            throw new IllegalArgumentException("vector.stored-dim (" + configuredStoredDim
+                    + ") must not exceed embedding.dim (" + modelDim + ")");
+        }
+        return configuredStoredDim;
+    }
+
+    /**
+     * The first storedDim components of the vector, scaled back to unit length.
+     * Vectors that are not longer than storedDim (or storedDim <= 0) are returned as is.
+     */
+    public static float[] truncate(float[] vector, int storedDim) {
+        if (storedDim <= 0 || vector.length <= storedDim) {
+            return vector;
+        }
+        double sumOfSquares = 0;
+        for (int i = 0; i < storedDim; i++) {
+            sumOfSquares += (double) vector[i] * vector[i];
+        }
+        float[] truncated = new float[storedDim];
+        double scale = sumOfSquares > 0 ? 1 / Math.sqrt(sumOfSquares) : 1;
+        for (int i = 0; i < storedDim; i++) {
+            truncated[i] = (float) (vector[i] * scale);
+        }
+        return truncated;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.jdeeplearn.rag.sink;
+
+import io.github.jdeeplearn.rag.config.CouchbaseReadiness;
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.model.StoredFaq;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Default sink: KV writes via CouchbaseFaqRepository.
+ * New documents are inserted, re-embedded ones replaced, text-only changes
+ * applied as sub-document mutations.
+ */
+public class CouchbaseFaqSink implements FaqSink {
+
+    private final CouchbaseFaqRepository repository;
+    private final CouchbaseReadiness readiness;
+
+    public CouchbaseFaqSink(CouchbaseFaqRepository repository) {
+        this(repository, CouchbaseReadiness.ready());
+    }
+
+    public CouchbaseFaqSink(CouchbaseFaqRepository repository, CouchbaseReadiness readiness) {
+        this.repository = Objects.requireNonNull(repository, "repository must not be null");
+        this.readiness = Objects.requireNonNull(readiness, "readiness must not be null");
+    }
+
+    @Override
+    public CompletableFuture<Void> ready() {
+        return readiness.future();
+    }
+
+    @Override
+    public void write(FaqDocument doc) {
+        repository.insertFaq(doc);
+    }
+
+    @Override
+    public void replace(FaqDocument doc) {
+        repository.upsertFaq(doc);
+    }
+
+    @Override
+    public boolean supportsChangeDetection() {
+        return true;
+    }
+
+    @Override
+    public Optional<StoredFaq> find(String id) {
+        return repository.findStored(id);
+    }
+
+    @Override
+    public void updateFields(String id, Map<String, String> fields) {
+        repository.updateFields(id, fields);
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.jdeeplearn.rag.sink;
+
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.model.StoredFaq;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Destination for fully built FAQ documents (embeddings included).
+ *
+ * Implementations:
+ *  - CouchbaseFaqSink: KV writes through CouchbaseFaqRepository (default)
+ *  - NdjsonFileSink: partitioned NDJSON files for offline bulk import
+ */
+public interface FaqSink extends AutoCloseable {
+
+    /**
+     * Persist a single document. Implementations must be thread-safe and throw
+     * when the document could not be persisted, so the caller counts it as failed.
+     */
+    void write(FaqDocument doc);
+
+    /**
+     * Persist a document that may already exist, replacing it entirely.
+     */
+    default void replace(FaqDocument doc) {
+        write(doc);
+    }
+
+    /**
+     * Whether this sink can read back stored documents and update them in place,
+     * i.e. whether find() and updateFields() are meaningful.
+     */
+    default boolean supportsChangeDetection() {
+        return false;
+    }
+
+    /**
+     * Stored text fields for the given key, if the document exists.
+     */
+    default Optional<StoredFaq> find(String id) {
+        return Optional.empty();
+    }
+
+    /**
+     * Overwrite only the given top-level text fields of an existing document,
+     * leaving question and question_vector untouched. Throws when the update fails.
+     */
+    default void updateFields(String id, Map<String, String> fields) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support partial updates");
+    }
+
+    /**
+     * Whether documents written here are served by the FTS vector index,
+     * i.e. whether the uploader should ensure the index before writing.
+     */
+    default boolean needsIndex() {
+        return true;
+    }
+
+    /**
+     * Completes once the destination accepts writes. Until then the uploader keeps
+     * embedding and holds finished documents back (see FaqUploaderService).
+     */
+    default CompletableFuture<Void> ready() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Push any buffered documents to their destination.
+     */
+    default void flush() {
+    }
+
+    @Override
+    default void close() {
+        flush();
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.jdeeplearn.rag.sink;
+
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.repository.FaqJsonEncoder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Export sink that streams complete FAQ documents to partitioned NDJSON files
+ * instead of writing to Couchbase.
+ * <p>
+ * Each line is one document plus its key in an {@code id} field, so the files can be
+ * bulk loaded later (possibly on another machine), e.g.:
+ * <pre>
+ * cbimport json --format lines -d file://export/faqs-00000.ndjson \
+ *   -c couchbase://localhost -u admin -p password -b faq_bucket \
+ *   --scope-collection-exp faq_scope.faqs -g %id% --ignore-fields id
+ * </pre>
+ * Documents are routed to a partition by key hash. Every partition owns a large
+ * direct buffer that is drained to its FileChannel only when full or on flush.
+ */
+public class NdjsonFileSink implements FaqSink {
+
+    private static final Logger log = LogManager.getLogger(NdjsonFileSink.class);
+
+    private final Path directory;
+    private final Partition[] partitions;
+
+    public NdjsonFileSink(Path directory, String filePrefix, int partitionCount, int bufferBytes) {
+        Objects.requireNonNull(directory, "directory must not be null");
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("partitionCount must be >= 1");
+        }
+        this.directory = directory;
+        this.partitions = new Partition[partitionCount];
+        try {
+            Files.createDirectories(directory);
+            for (int i = 0; i < partitionCount; i++) {
+                Path file = directory.resolve(String.format("%s-%05d.ndjson", filePrefix, i));
+                partitions[i] = new Partition(file, bufferBytes);
+            }
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Failed to open NDJSON export files in " + directory, e);
+        }
+        log.info("Initialized NdjsonFileSink: dir={}, partitions={}, bufferBytes={}",
+                directory.toAbsolutePath(), partitionCount, bufferBytes);
+    }
+
+    @Override
+    public void write(FaqDocument doc) {
+        if (doc == null) {
+            log.warn("Skipped export for null FAQ document");
+            return;
+        }
+        try {
+            FaqJsonEncoder.Buffer line = FaqJsonEncoder.encodeLine(doc);
+            partitionFor(doc.getId()).append(line.array(), line.size());
+        } catch (IOException e) {
+            log.error("Failed to export FAQ [{}]: {}", doc.getId(), e.toString());
+            throw new UncheckedIOException(e);
+        } catch (UncheckedIOException e) {
+            log.error("Failed to export FAQ [{}]: {}", doc.getId(), e.toString());
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean needsIndex() {
+        return false;
+    }
+
+    @Override
+    public void flush() {
+        for (Partition partition : partitions) {
+            try {
+                partition.drain();
+            } catch (IOException e) {
+                log.error("Failed to flush NDJSON partition {}: {}", partition.file, e.toString(), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        closeQuietly();
+        log.info("Closed NDJSON export in {}", directory.toAbsolutePath());
+    }
+
+    Path fileOf(String id) {
+        return partitionFor(id).file;
+    }
+
+    private Partition partitionFor(String id) {
+        return partitions[Math.floorMod(id.hashCode(), partitions.length)];
+    }
+
+    private void closeQuietly() {
+        for (Partition partition : partitions) {
+            if (partition == null) {
+                continue;
+            }
+            try {
+                partition.channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close NDJSON partition {}: {}", partition.file, e.toString());
+            }
+        }
+    }
+
+    /**
+     * One output file with its own write buffer; appends are serialized per partition.
+     */
+    private static final class Partition {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        Partition(Path file, int bufferBytes) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        }
+
+        synchronized void append(byte[] bytes, int length) throws IOException {
+            if (length > buffer.remaining()) {
+                drainLocked();
+            }
+            if (length > buffer.capacity()) {
+                ByteBuffer oversized = ByteBuffer.wrap(bytes, 0, length);
+                while (oversized.hasRemaining()) {
+                    channel.write(oversized);
+                }
+                return;
+            }
+            buffer.put(bytes, 0, length);
+        }
+
+        synchronized void drain() throws IOException {
+            drainLocked();
+        }
+
+        private void drainLocked() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.jdeeplearn.rag.snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Half-open document key range [from, to) for one range scan; null bounds are open.
+ */
+public record KeyRange(String from, String to) {
+
+    private static final String HEX = "0123456789abcdef";
+
+    /**
+     * Splits the whole key space into ranges that can be scanned in parallel.
+     * <p>
+     * Generated keys are "faq-" plus a UUID, so the keys under "prefix" are split
+     * evenly on the next (hex) character into up to 16 ranges. Two more ranges cover
+     * everything before and after the prefix (e.g. explicit ids), so every key
+     * falls into exactly one range.
+     */
+    public static List<KeyRange> split(String prefix, int partitions) {
+        if (prefix == null || prefix.isEmpty() || partitions <= 1) {
+            return List.of(new KeyRange(null, null));
+        }
+        int parts = Math.min(partitions, HEX.length());
+        String afterPrefix = prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+
+        List<KeyRange> ranges = new ArrayList<>(parts + 2);
+        ranges.add(new KeyRange(null, prefix));
+        String from = prefix;
+        for (int i = 1; i < parts; i++) {
+            String to = prefix + HEX.charAt(i * HEX.length() / parts);
+            ranges.add(new KeyRange(from, to));
+            from = to;
+        }
+        ranges.add(new KeyRange(from, afterPrefix));
+        ranges.add(new KeyRange(afterPrefix, null));
+        return ranges;
+    }
+
+    public boolean contains(String key) {
+        return (from == null || key.compareTo(from) >= 0) && (to == null || key.compareTo(to) < 0);
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.jdeeplearn.rag.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memory-mapped, read-only view of a vector snapshot file.
+ * <p>
+ * Layout (all numbers little-endian):
+ * <pre>
+ * offset 0   magic "FAQVEC01", int32 version, int32 dim, int64 count,
+ *            int64 vectorsOffset, int64 idOffsetsOffset, int64 idBytesOffset
+ *            (zero-padded to 64 bytes)
+ * 64         count x dim float32, one contiguous row per document
+ * idOffsets  count + 1 int64 offsets into the key bytes (8-byte aligned)
+ * idBytes    UTF-8 document keys, back to back
+ * </pre>
+ * Row i belongs to key i. Opening maps the file without reading it, so loading
+ * millions of vectors costs no parsing; pages are faulted in on first access.
+ * Other tools can map the rows directly, e.g.
+ * {@code numpy.memmap(path, dtype='<f4', mode='r', offset=64, shape=(count, dim))},
+ * or a {@code MemorySegment} of the same region.
+ */
+public final class VectorSnapshot implements AutoCloseable {
+
+    static final byte[] MAGIC = "FAQVEC01".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final long HEADER_BYTES = 64;
+
+    private final FileChannel channel;
+    private final int dim;
+    private final long count;
+    private final long rowsPerChunk;
+    private final List<FloatBuffer> rowChunks = new ArrayList<>();
+    private final ByteBuffer idOffsets;
+    private final ByteBuffer idBytes;
+
+    private VectorSnapshot(FileChannel channel) throws IOException {
+        this.channel = channel;
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magic = new byte[MAGIC.length];
+        header.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a vector snapshot file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported vector snapshot version " + version);
+        }
+        this.dim = header.getInt();
+        this.count = header.getLong();
+        long vectorsOffset = header.getLong();
+        long idOffsetsOffset = header.getLong();
+        long idBytesOffset = header.getLong();
+
+        // A single mapping is limited to 2 GB, so rows are mapped in chunks of whole rows
+        long rowBytes = 4L * dim;
+        this.rowsPerChunk = Math.max(1, Integer.MAX_VALUE / rowBytes);
+        for (long first = 0; first < count; first += rowsPerChunk) {
+            long rows = Math.min(rowsPerChunk, count - first);
+            rowChunks.add(channel.map(FileChannel.MapMode.READ_ONLY, vectorsOffset + first * rowBytes, rows * rowBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asFloatBuffer());
+        }
+        this.idOffsets = channel.map(FileChannel.MapMode.READ_ONLY, idOffsetsOffset, 8L * (count + 1))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        this.idBytes = channel.map(FileChannel.MapMode.READ_ONLY, idBytesOffset, channel.size() - idBytesOffset);
+    }
+
+    public static VectorSnapshot open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new VectorSnapshot(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int dim() {
+        return dim;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Key of the document in the given row.
+     */
+    public String id(long row) {
+        checkRow(row);
+        long start = idOffsets.getLong((int) (8 * row));
+        long end = idOffsets.getLong((int) (8 * (row + 1)));
+        byte[] bytes = new byte[(int) (end - start)];
+        idBytes.get((int) start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copies the given row into "target" (at least dim long).
+     */
+    public void vector(long row, float[] target) {
+        checkRow(row);
+        FloatBuffer chunk = rowChunks.get((int) (row / rowsPerChunk));
+        chunk.get((int) (row % rowsPerChunk) * dim, target, 0, dim);
+    }
+
+    public float[] vector(long row) {
+        float[] vector = new float[dim];
+        vector(row, vector);
+        return vector;
+    }
+
+    private void checkRow(long row) {
+        if (row < 0 || row >= count) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + count);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,224 @@
+package io.github.jdeeplearn.rag.snapshot;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a vector snapshot file (see VectorSnapshot for the layout).
+ * <p>
+ * Rows arrive on several partitions in parallel, one thread per partition. Each
+ * partition spools its float32 rows to a temporary file and keeps its keys; finish()
+ * writes the header, concatenates the row spools with channel transfers and appends
+ * the key table, then moves the file into place. Partitions are written in order,
+ * so a row's position only depends on which partition and scan order it came from.
+ */
+public final class VectorSnapshotWriter implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(VectorSnapshotWriter.class);
+
+    private static final int SPOOL_BUFFER_BYTES = 1024 * 1024;
+
+    private final Path target;
+    private final int dim;
+    private final List<Partition> partitions = new ArrayList<>();
+
+    public VectorSnapshotWriter(Path target, int dim, int partitionCount) {
+        if (dim < 1) {
+            throw new IllegalArgumentException("dim must be >= 1");
+        }
+        this.target = target;
+        this.dim = dim;
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            for (int i = 0; i < partitionCount; i++) {
+                partitions.add(new Partition(Files.createTempFile(parent, "snapshot-", ".rows")));
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Failed to create snapshot spool files next to " + target, e);
+        }
+    }
+
+    public Partition partition(int index) {
+        return partitions.get(index);
+    }
+
+    /**
+     * Assembles the snapshot file and returns the number of rows written.
+     * Call once every partition is complete.
+     */
+    public long finish() throws IOException {
+        long count = 0;
+        for (Partition partition : partitions) {
+            partition.drain();
+            count += partition.ids.size();
+        }
+
+        long rowBytes = 4L * dim;
+        long vectorsOffset = VectorSnapshot.HEADER_BYTES;
+        long idOffsetsOffset = align8(vectorsOffset + count * rowBytes);
+        long idBytesOffset = idOffsetsOffset + 8L * (count + 1);
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            ByteBuffer header = ByteBuffer.allocate((int) VectorSnapshot.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(VectorSnapshot.MAGIC)
+                    .putInt(VectorSnapshot.VERSION)
+                    .putInt(dim)
+                    .putLong(count)
+                    .putLong(vectorsOffset)
+                    .putLong(idOffsetsOffset)
+                    .putLong(idBytesOffset)
+                    .clear();
+            writeFully(out, header, 0);
+
+            long position = vectorsOffset;
+            for (Partition partition : partitions) {
+                long size = partition.spool.size();
+                long copied = 0;
+                while (copied < size) {
+                    copied += out.transferFrom(partition.spool.position(copied), position + copied, size - copied);
+                }
+                position += size;
+            }
+
+            // Key table: count + 1 offsets into the UTF-8 key bytes, then the bytes
+            ByteBuffer buffer = ByteBuffer.allocateDirect(SPOOL_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            position = idOffsetsOffset;
+            long keyOffset = 0;
+            buffer.putLong(keyOffset);
+            for (Partition partition : partitions) {
+                for (byte[] id : partition.ids) {
+                    if (buffer.remaining() < Long.BYTES) {
+                        position += flush(out, buffer, position);
+                    }
+                    keyOffset += id.length;
+                    buffer.putLong(keyOffset);
+                }
+            }
+            position += flush(out, buffer, position);
+
+            for (Partition partition : partitions) {
+                for (byte[] id : partition.ids) {
+                    if (buffer.remaining() < id.length) {
+                        position += flush(out, buffer, position);
+                    }
+                    if (id.length > buffer.capacity()) {
+                        position += writeFully(out, ByteBuffer.wrap(id), position);
+                    } else {
+                        buffer.put(id);
+                    }
+                }
+            }
+            flush(out, buffer, position);
+            out.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote vector snapshot {}: {} vectors x {} dims", target.toAbsolutePath(), count, dim);
+        return count;
+    }
+
+    @Override
+    public void close() {
+        for (Partition partition : partitions) {
+            partition.discard();
+        }
+    }
+
+    private static long align8(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static long flush(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        long written = writeFully(out, buffer, position);
+        buffer.clear();
+        return written;
+    }
+
+    private static long writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += out.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    /**
+     * Rows of one scan partition. Not thread-safe: one writer thread per partition.
+     */
+    public final class Partition {
+
+        private final Path file;
+        private final FileChannel spool;
+        private final ByteBuffer buffer;
+        private final List<byte[]> ids = new ArrayList<>();
+        private long skipped;
+
+        private Partition(Path file) throws IOException {
+            this.file = file;
+            this.spool = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = ByteBuffer.allocateDirect(Math.max(SPOOL_BUFFER_BYTES, 4 * dim)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Appends one row; vectors of another dimension are skipped (returns false).
+         */
+        public boolean add(String id, float[] vector) throws IOException {
+            if (vector.length != dim) {
+                if (skipped++ == 0) {
+                    log.warn("Skipping [{}] from snapshot: {} dimensions, expected {}", id, vector.length, dim);
+                }
+                return false;
+            }
+            if (buffer.remaining() < 4 * dim) {
+                drain();
+            }
+            buffer.asFloatBuffer().put(vector);
+            buffer.position(buffer.position() + 4 * dim);
+            ids.add(id.getBytes(StandardCharsets.UTF_8));
+            return true;
+        }
+
+        public long size() {
+            return ids.size();
+        }
+
+        public long skipped() {
+            return skipped;
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                spool.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void discard() {
+            try {
+                spool.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete snapshot spool {}: {}", file, e.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.jdeeplearn.rag.tenant;
+
+import io.github.jdeeplearn.rag.service.FaqUploaderService;
+import org.springframework.core.io.Resource;
+
+/**
+ * One product line loaded into its own scope, collection and vector index.
+ *
+ * @param inputFile source for batch runs, or null when the tenant is only fed
+ *                  through the ingestion API
+ * @param uploader  uploader bound to the tenant's collection and index, running on
+ *                  the tenant's lane of the shared FairScheduler
+ */
+public record Tenant(
+        String name,
+        double weight,
+        String scope,
+        String collection,
+        String indexName,
+        Resource inputFile,
+        FaqUploaderService uploader
+) {
+}
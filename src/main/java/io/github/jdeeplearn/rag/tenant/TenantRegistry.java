@@ -0,0 +1,30 @@
+package io.github.jdeeplearn.rag.tenant;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tenants configured through uploader.tenants, in configuration order.
+ */
+public class TenantRegistry {
+
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>();
+
+    public TenantRegistry(List<Tenant> tenants) {
+        for (Tenant tenant : tenants) {
+            if (this.tenants.putIfAbsent(tenant.name(), tenant) != null) {
+                throw new IllegalArgumentException("Tenant '" + tenant.name() + "' configured twice");
+            }
+        }
+    }
+
+    public Optional<Tenant> find(String name) {
+        return Optional.ofNullable(tenants.get(name));
+    }
+
+    public List<Tenant> all() {
+        return List.copyOf(tenants.values());
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.jdeeplearn.rag.web;
+
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.http.HttpTransport.PoolStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Connection pool gauges of the shared HttpTransport, one entry per remote host
+ * (embedding replicas, FTS).
+ *
+ *  GET /api/http/pools
+ */
+@RestController
+public class HttpPoolController {
+
+    private final HttpTransport transport;
+
+    public HttpPoolController(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    @GetMapping("/api/http/pools")
+    public List<PoolStats> pools() {
+        return transport.stats();
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.jdeeplearn.rag.web;
+
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.service.IngestionJob;
+import io.github.jdeeplearn.rag.service.IngestionJobService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Ingestion API for service mode (uploader.mode=service).
+ *
+ *  POST /api/ingest/batches   JSON array of FAQs        -> 202 + job
+ *  POST /api/ingest/stream    NDJSON stream of FAQs     -> 202 + job, body read in the background
+ *  GET  /api/ingest/jobs      recent jobs
+ *  GET  /api/ingest/jobs/{id} job status and progress
+ *
+ * Both POST endpoints take an optional ?tenant= naming a configured tenant
+ * (400 if unknown); without it, FAQs go to the default collection.
+ */
+@RestController
+@RequestMapping("/api/ingest")
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "service")
+public class IngestionController {
+
+    private final IngestionJobService jobService;
+
+    public IngestionController(IngestionJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping(path = "/batches", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IngestionJob> submitBatch(
+            @RequestParam(required = false) String tenant,
+            @RequestBody List<FaqInput> faqs
+    ) {
+        return accepted(jobService.submitBatch(tenant, faqs));
+    }
+
+    @PostMapping(path = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<IngestionJob> submitStream(
+            @RequestParam(required = false) String tenant,
+            @RequestBody Flux<FaqInput> faqs
+    ) {
+        return accepted(jobService.submitStream(tenant, faqs));
+    }
+
+    @GetMapping("/jobs")
+    public List<IngestionJob> jobs() {
+        return jobService.list();
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<IngestionJob> job(@PathVariable String id) {
+        return ResponseEntity.of(jobService.find(id));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private static ResponseEntity<IngestionJob> accepted(IngestionJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/ingest/jobs/" + job.getId()))
+                .body(job);
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.jdeeplearn.rag.web;
+
+import io.github.jdeeplearn.rag.model.FaqSearchHit;
+import io.github.jdeeplearn.rag.search.FaqSearchService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Semantic FAQ search for service mode (uploader.mode=service).
+ *
+ *  GET /api/search?q=...&k=5              top-k FAQs for a free-text query
+ *  GET /api/search?q=...&category=Claims   same, restricted to one category
+ */
+@RestController
+@RequestMapping("/api/search")
+@ConditionalOnProperty(name = "uploader.mode", havingValue = "service")
+@ConditionalOnProperty(name = "uploader.sink", havingValue = "couchbase", matchIfMissing = true)
+public class SearchController {
+
+    private final FaqSearchService searchService;
+
+    public SearchController(FaqSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping
+    public Mono<List<FaqSearchHit>> search(@RequestParam("q") String query,
+                                           @RequestParam(name = "k", defaultValue = "5") int k,
+                                           @RequestParam(name = "category", required = false) String category) {
+        if (query.isBlank()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must not be blank"));
+        }
+        // Cache misses block on the embedding service, FTS and KV
+        return Mono.fromCallable(() -> searchService.search(query, k, category))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
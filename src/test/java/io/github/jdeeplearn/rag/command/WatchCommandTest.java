@@ -0,0 +1,127 @@
+package io.github.jdeeplearn.rag.command;
+
+import io.github.jdeeplearn.rag.service.FaqUploaderService;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.service.UploadProgress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that WatchCommand:
+ *  - loads the files already in the directory on startup
+ *  - coalesces a burst of saves into one upload of only the new and changed records
+ *  - ignores files that are not FAQ input and skips unparsable files
+ *  - skips a record without id or question and keeps watching
+ *  - re-sends the records of a file whose upload did not store every FAQ
+ */
+class WatchCommandTest {
+
+    @TempDir
+    Path dir;
+
+    private final FaqUploaderService uploaderService = mock(FaqUploaderService.class);
+    private Thread watcher;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        watcher.interrupt();
+        watcher.join(5000);
+    }
+
+    @Test
+    void shouldUploadOnlyChangedRecordsOfChangedFiles() throws Exception {
+        when(uploaderService.uploadFaqs(anyList())).thenReturn(new UploadProgress());
+        Files.writeString(dir.resolve("billing.json"), """
+                [{"category":"Billing","question":"How do I pay?","answer":"By card."},
+                 {"category":"Billing","question":"Can I get a refund?","answer":"Within 30 days."}]
+                """);
+        start(new WatchCommand(uploaderService, dir.toString(), 200, 2000, true));
+
+        ArgumentCaptor<List<FaqInput>> uploads = captor();
+        verify(uploaderService, timeout(5000)).uploadFaqs(uploads.capture());
+        assertThat(uploads.getValue()).hasSize(2);
+
+        // A burst: broken intermediate save, unrelated file, then the final content
+        Files.writeString(dir.resolve("billing.json"), "[{\"category\":");
+        Files.writeString(dir.resolve("notes.txt"), "not an FAQ file");
+        Files.writeString(dir.resolve("billing.json"), """
+                [{"category":"Billing","question":"How do I pay?","answer":"By card or invoice."},
+                 {"category":"Billing","question":"Can I get a refund?","answer":"Within 30 days."}]
+                """);
+        Files.writeString(dir.resolve("account.ndjson"), """
+                {"category":"Account","question":"How do I reset my password?","answer":"Use the login page."}
+                """);
+
+        verify(uploaderService, timeout(5000).times(2)).uploadFaqs(uploads.capture());
+        assertThat(uploads.getAllValues().get(uploads.getAllValues().size() - 1))
+                .extracting(FaqInput::answer)
+                .containsExactlyInAnyOrder("By card or invoice.", "Use the login page.");
+    }
+
+    @Test
+    void shouldResendRecordsAfterFailedUpload() throws Exception {
+        UploadProgress partial = mock(UploadProgress.class);
+        when(partial.getSubmitted()).thenReturn(2L);
+        when(partial.getSucceeded()).thenReturn(1L);
+        when(uploaderService.uploadFaqs(anyList())).thenReturn(partial, new UploadProgress());
+        String content = """
+                [{"category":"Billing","question":"How do I pay?","answer":"By card."},
+                 {"category":"Billing","question":"Can I get a refund?","answer":"Within 30 days."}]
+                """;
+        Files.writeString(dir.resolve("billing.json"), content);
+        start(new WatchCommand(uploaderService, dir.toString(), 200, 2000, true));
+
+        ArgumentCaptor<List<FaqInput>> uploads = captor();
+        verify(uploaderService, timeout(5000)).uploadFaqs(uploads.capture());
+
+        // Same content saved again: nothing was remembered, so both records go out again
+        Files.writeString(dir.resolve("billing.json"), content);
+
+        verify(uploaderService, timeout(5000).times(2)).uploadFaqs(uploads.capture());
+        assertThat(uploads.getAllValues().get(uploads.getAllValues().size() - 1)).hasSize(2);
+    }
+
+    @Test
+    void shouldSkipRecordWithoutKeyAndKeepWatching() throws Exception {
+        when(uploaderService.uploadFaqs(anyList())).thenReturn(new UploadProgress());
+        Files.writeString(dir.resolve("billing.json"), """
+                [{"category":"Billing","answer":"No question here."},
+                 {"category":"Billing","question":"How do I pay?","answer":"By card."}]
+                """);
+        start(new WatchCommand(uploaderService, dir.toString(), 200, 2000, true));
+
+        ArgumentCaptor<List<FaqInput>> uploads = captor();
+        verify(uploaderService, timeout(5000)).uploadFaqs(uploads.capture());
+        assertThat(uploads.getValue()).extracting(FaqInput::question).containsExactly("How do I pay?");
+
+        Files.writeString(dir.resolve("account.ndjson"), """
+                {"category":"Account","question":"How do I reset my password?","answer":"Use the login page."}
+                """);
+
+        verify(uploaderService, timeout(5000).times(2)).uploadFaqs(uploads.capture());
+        assertThat(watcher.isAlive()).isTrue();
+    }
+
+    private void start(WatchCommand command) {
+        watcher = new Thread(() -> command.run());
+        watcher.start();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<FaqInput>> captor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
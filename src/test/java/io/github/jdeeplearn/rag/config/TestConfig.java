@@ -1,5 +1,6 @@
 package io.github.jdeeplearn.rag.config;
 
+import io.github.jdeeplearn.rag.http.HttpTransport;
 import io.github.jdeeplearn.rag.service.EmbeddingClient;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -13,7 +14,8 @@ public class TestConfig {
     @Bean
     public EmbeddingClient mockEmbeddingClient() {
         // Subclass override (since EmbeddingClient is a concrete class)
-        return new EmbeddingClient("http://localhost:9999/embed", "mock-model", "mock-provider", 1000) {
+        return new EmbeddingClient("http://localhost:9999/embed", "mock-model", "mock-provider", 1000,
+                "ewma", 3, 10_000, false, 95, 20, HttpTransport.shared()) {
             @Override
             public float[] embed(String question) {
                 float[] vec = new float[1024];
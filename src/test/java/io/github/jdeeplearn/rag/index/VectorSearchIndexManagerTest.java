@@ -1,5 +1,8 @@
 package io.github.jdeeplearn.rag.index;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jdeeplearn.rag.http.HttpTransport;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -19,6 +22,8 @@ import static org.assertj.core.api.Assertions.assertThat;
  *   - Auth headers are present
  *   - Correct HTTP method and path
  *   - Handles 2xx success and 400 "already exists" responses gracefully
+ *   - Stores exactly the configured text fields
+ *   - Repoints an existing alias in place and reads index document counts
  */
 class VectorSearchIndexManagerTest {
 
@@ -52,8 +57,11 @@ class VectorSearchIndexManagerTest {
                 "faqs",
                 "faq_vectors",
                 1024,
+                0,
                 "admin",
-                "password"
+                "password",
+                new String[0],
+                HttpTransport.shared()
         );
 
         manager.ensureIndex();
@@ -75,6 +83,7 @@ class VectorSearchIndexManagerTest {
         String body = request.getBody().readUtf8();
         assertThat(body).contains("\"question_vector\"");
         assertThat(body).contains("\"dims\":1024");
+        assertThat(body).contains("\"analyzer\":\"keyword\"");
     }
 
     @Test
@@ -93,8 +102,11 @@ class VectorSearchIndexManagerTest {
                 "faqs",
                 "faq_vectors",
                 1024,
+                0,
                 "admin",
-                "password"
+                "password",
+                new String[0],
+                HttpTransport.shared()
         );
 
         manager.ensureIndex();
@@ -104,4 +116,73 @@ class VectorSearchIndexManagerTest {
         assertThat(request.getMethod()).isEqualTo("PUT");
         assertThat(request.getPath()).isEqualTo("/api/index/faq_vectors");
     }
+
+    @Test
+    void ensureIndexShouldStoreConfiguredFieldsOnly() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody("{\"status\":\"ok\"}")
+                .addHeader("Content-Type", "application/json"));
+
+        VectorSearchIndexManager manager = new VectorSearchIndexManager(
+                server.url("/").toString(),
+                "faq_bucket",
+                "faq_scope",
+                "faqs",
+                "faq_vectors",
+                1024,
+                0,
+                "admin",
+                "password",
+                new String[]{"question", " answer "},
+                HttpTransport.shared()
+        );
+
+        manager.ensureIndex();
+
+        String body = server.takeRequest(1, TimeUnit.SECONDS).getBody().readUtf8();
+        JsonNode properties = new ObjectMapper().readTree(body)
+                .at("/params/mapping/types/faq_scope.faqs/properties");
+        assertThat(properties.at("/question/fields/0/store").asBoolean()).isTrue();
+        assertThat(properties.at("/answer/fields/0/store").asBoolean()).isTrue();
+        assertThat(properties.at("/category/fields/0/store").asBoolean()).isFalse();
+        assertThat(properties.at("/link/fields/0/store").asBoolean()).isFalse();
+
+        // Only category is an exact-match keyword field
+        assertThat(properties.at("/category/fields/0/analyzer").asText()).isEqualTo("keyword");
+        assertThat(properties.at("/image/fields/0/analyzer").asText()).isEqualTo("standard");
+        assertThat(properties.at("/link/fields/0/analyzer").asText()).isEqualTo("standard");
+    }
+
+    @Test
+    void pointAliasShouldUpdateExistingAliasWithItsUuid() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Type", "application/json")
+                .setBody("{\"status\":\"ok\",\"indexDef\":{\"type\":\"fulltext-alias\",\"name\":\"faq_search\","
+                        + "\"uuid\":\"4c1d\",\"params\":{\"targets\":{\"faq_vectors\":{}}}}}"));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{\"status\":\"ok\"}"));
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Type", "application/json")
+                .setBody("{\"status\":\"ok\",\"count\":1234}"));
+
+        VectorSearchIndexManager manager = new VectorSearchIndexManager(
+                server.url("/").toString(), "faq_bucket", "faq_scope", "faqs_v2", "faq_vectors_v2", 384, 0,
+                "admin", "password", new String[0], HttpTransport.shared());
+
+        manager.pointAlias("faq_search", "faq_vectors_v2");
+        long count = manager.documentCount("faq_vectors_v2");
+
+        assertThat(server.takeRequest(1, TimeUnit.SECONDS).getPath()).isEqualTo("/api/index/faq_search");
+        RecordedRequest update = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(update.getMethod()).isEqualTo("PUT");
+        assertThat(update.getPath()).isEqualTo("/api/index/faq_search?prevIndexUUID=4c1d");
+        JsonNode alias = new ObjectMapper().readTree(update.getBody().readUtf8());
+        assertThat(alias.path("type").asText()).isEqualTo("fulltext-alias");
+        assertThat(alias.at("/params/targets").fieldNames()).toIterable().containsExactly("faq_vectors_v2");
+
+        assertThat(server.takeRequest(1, TimeUnit.SECONDS).getPath()).isEqualTo("/api/index/faq_vectors_v2/count");
+        assertThat(count).isEqualTo(1234);
+    }
 }
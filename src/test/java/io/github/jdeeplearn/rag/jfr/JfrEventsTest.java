@@ -0,0 +1,115 @@
+package io.github.jdeeplearn.rag.jfr;
+
+import com.couchbase.client.core.error.DurabilityImpossibleException;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.kv.InsertOptions;
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.service.EmbeddingClient;
+import io.github.jdeeplearn.rag.service.FaqIds;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.apache.logging.log4j.CloseableThreadContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies that the pipeline emits its JFR events:
+ *  - EmbeddingEvent with record ID from the logging context, dimensions and HTTP status
+ *  - KvWriteEvent with durability and the fallback flag, for full writes and text-only patches
+ */
+class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void embeddingAndKvWritesShouldBeRecorded() throws Exception {
+        Path file = tempDir.resolve("faq.jfr");
+
+        try (MockWebServer server = new MockWebServer(); Recording recording = new Recording()) {
+            server.enqueue(new MockResponse()
+                    .setResponseCode(200)
+                    .addHeader("Content-Type", "application/json")
+                    .setBody("{\"model\":\"m\",\"embedding_dim\":3,\"embeddings\":[{\"vector\":[0.1,0.2,0.3],\"index\":0}]}"));
+            server.enqueue(new MockResponse().setResponseCode(503).setBody("{\"error\":\"busy\"}"));
+            server.start();
+
+            Collection collection = mock(Collection.class);
+            when(collection.insert(anyString(), any(), any(InsertOptions.class)))
+                    .thenThrow(mock(DurabilityImpossibleException.class))
+                    .thenReturn(null);
+
+            recording.enable(EmbeddingEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(KvWriteEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+
+            EmbeddingClient client = new EmbeddingClient(server.url("/").toString(), "m", "p", 2000,
+                    "ewma", 3, 10_000, false, 95, 20, HttpTransport.shared());
+            try (CloseableThreadContext.Instance ignored = CloseableThreadContext.put(FaqIds.CONTEXT_KEY, "faq-42")) {
+                client.embed("How do I reset my password?");
+            }
+            client.embed("Second call fails");
+
+            CouchbaseFaqRepository repository = new CouchbaseFaqRepository(collection, "majority");
+            repository.insertFaq(document("faq-42"));
+            repository.updateFields("faq-42", Map.of("answer", "Use the reset link."));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> embeddings = events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.github.jdeeplearn.rag.Embedding"))
+                .toList();
+        assertThat(embeddings).hasSize(2);
+        RecordedEvent ok = embeddings.get(0);
+        assertThat(ok.getString("recordId")).isEqualTo("faq-42");
+        assertThat(ok.getInt("dimensions")).isEqualTo(3);
+        assertThat(ok.getInt("httpStatus")).isEqualTo(200);
+        assertThat(ok.getInt("batchSize")).isEqualTo(1);
+        assertThat(ok.getLong("timeoutMs")).isEqualTo(2000);
+        RecordedEvent failed = embeddings.get(1);
+        assertThat(failed.getString("recordId")).isNull();
+        assertThat(failed.getInt("httpStatus")).isEqualTo(503);
+        assertThat(failed.getString("error")).isNotNull();
+
+        List<RecordedEvent> writes = events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.github.jdeeplearn.rag.KvWrite"))
+                .toList();
+        assertThat(writes).hasSize(2);
+        RecordedEvent write = writes.get(0);
+        assertThat(write.getString("recordId")).isEqualTo("faq-42");
+        assertThat(write.getString("operation")).isEqualTo("insert");
+        assertThat(write.getString("durability")).isEqualTo("MAJORITY");
+        assertThat(write.getBoolean("fallback")).isTrue();
+        assertThat(write.getString("error")).isNull();
+        assertThat(write.getLong("bytes")).isPositive();
+        RecordedEvent patch = writes.get(1);
+        assertThat(patch.getString("recordId")).isEqualTo("faq-42");
+        assertThat(patch.getString("operation")).isEqualTo("mutateIn");
+        assertThat(patch.getBoolean("fallback")).isFalse();
+        assertThat(patch.getLong("bytes")).isEqualTo("Use the reset link.".length());
+    }
+
+    private static FaqDocument document(String id) {
+        return FaqDocument.of(id, "Accounts", "How do I reset my password?", "Go to settings.", null, null,
+                new float[]{0.1f, 0.2f, 0.3f}, "p", "m", 3, "cosine", "faq-loader", "v1.0.0");
+    }
+}
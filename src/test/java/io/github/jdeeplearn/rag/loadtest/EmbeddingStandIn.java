@@ -0,0 +1,270 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jdeeplearn.rag.model.EmbeddingRequest;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * MockWebServer-backed stand-in for the Granite /embed API.
+ *
+ * Every request sleeps for a sample of the configured latency distribution and
+ * fails with 503 at the configured error rate; otherwise it answers with one
+ * vector per input in the real response shape.
+ *
+ * Optionally speaks HTTP/2 with prior knowledge (h2c()) and gzip in both directions
+ * (gzip()); bytes on the wire and connections opened are counted either way.
+ */
+final class EmbeddingStandIn implements AutoCloseable {
+
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final int dim;
+    // Distinct vectors, so compression sees realistic float text rather than repeats
+    private final String[] vectorJson = new String[16];
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong inputs = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+    private volatile boolean gzip;
+
+    EmbeddingStandIn(int dim, LatencyDistribution latency, double errorRate) {
+        this.dim = dim;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        for (int i = 0; i < vectorJson.length; i++) {
+            vectorJson[i] = unitVectorJson(dim, new Random(i));
+        }
+        this.server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return respond(request);
+            }
+        });
+    }
+
+    /**
+     * HTTP/2 cleartext with prior knowledge instead of HTTP/1.1; call before start().
+     */
+    EmbeddingStandIn h2c() {
+        server.setProtocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+        return this;
+    }
+
+    /**
+     * Accepts gzip request bodies and gzips responses when the client accepts it.
+     */
+    EmbeddingStandIn gzip() {
+        this.gzip = true;
+        return this;
+    }
+
+    EmbeddingStandIn start() throws IOException {
+        server.start();
+        return this;
+    }
+
+    String url() {
+        return server.url("/").toString();
+    }
+
+    long requestCount() {
+        return requests.get();
+    }
+
+    long inputCount() {
+        return inputs.get();
+    }
+
+    long errorCount() {
+        return errors.get();
+    }
+
+    /**
+     * Request body bytes as received, i.e. compressed when the client gzips.
+     */
+    long requestBytes() {
+        return requestBytes.get();
+    }
+
+    long responseBytes() {
+        return responseBytes.get();
+    }
+
+    long connectionCount() {
+        return connections.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse respond(RecordedRequest request) {
+        requests.incrementAndGet();
+        requestBytes.addAndGet(request.getBodySize());
+        if (request.getSequenceNumber() == 0) {
+            connections.incrementAndGet();
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long delayMicros = latency.sampleMicros(random);
+        if (delayMicros > 0) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(delayMicros);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (random.nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            return new MockResponse().setResponseCode(503).setBody("{\"error\":\"synthetic failure\"}");
+        }
+
+        EmbeddingRequest body;
+        try {
+            body = mapper.readValue(requestBody(request), EmbeddingRequest.class);
+        } catch (IOException e) {
+            return new MockResponse().setResponseCode(400).setBody("{\"error\":\"bad request\"}");
+        }
+
+        int count = body.inputs() == null ? 0 : body.inputs().size();
+        long totalChars = 0;
+        StringBuilder json = new StringBuilder(vectorJson[0].length() * Math.max(count, 1) + 256);
+        json.append("{\"model\":\"synthetic\",\"model_version\":\"0\",\"embedding_dim\":").append(dim)
+                .append(",\"embeddings\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"vector\":").append(vectorJson[i % vectorJson.length]).append(",\"text\":null,\"index\":").append(i).append('}');
+            totalChars += body.inputs().get(i).length();
+        }
+        json.append("],\"metadata\":{\"num_inputs\":").append(count)
+                .append(",\"total_chars\":").append(totalChars)
+                .append("},\"generated_at\":\"2025-11-07T00:00:00\"}");
+        inputs.addAndGet(count);
+
+        MockResponse response = new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Type", "application/json");
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (gzip && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            Buffer compressed = gzip(json.toString());
+            responseBytes.addAndGet(compressed.size());
+            return response.addHeader("Content-Encoding", "gzip").setBody(compressed);
+        }
+        responseBytes.addAndGet(json.length());
+        return response.setBody(json.toString());
+    }
+
+    private String requestBody(RecordedRequest request) throws IOException {
+        if (!"gzip".equalsIgnoreCase(request.getHeader("Content-Encoding"))) {
+            return request.getBody().readUtf8();
+        }
+        if (!gzip) {
+            throw new IOException("gzip request body not accepted");
+        }
+        try (InputStream in = new GZIPInputStream(request.getBody().inputStream())) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Buffer gzip(String text) {
+        Buffer compressed = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(compressed))) {
+            sink.writeUtf8(text);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return compressed;
+    }
+
+    private static String unitVectorJson(int dim, Random random) {
+        double[] components = new double[dim];
+        double sumOfSquares = 0;
+        for (int i = 0; i < dim; i++) {
+            components[i] = random.nextGaussian();
+            sumOfSquares += components[i] * components[i];
+        }
+        double scale = 1 / Math.sqrt(sumOfSquares);
+        StringBuilder sb = new StringBuilder(dim * 22);
+        sb.append('[');
+        for (int i = 0; i < dim; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(String.format(Locale.ROOT, "%.17f", components[i] * scale));
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Per-request latency model for the stand-in.
+     */
+    @FunctionalInterface
+    interface LatencyDistribution {
+
+        long sampleMicros(ThreadLocalRandom random);
+
+        static LatencyDistribution none() {
+            return random -> 0L;
+        }
+
+        static LatencyDistribution fixed(double millis) {
+            long micros = Math.round(millis * 1000);
+            return random -> micros;
+        }
+
+        static LatencyDistribution uniform(double minMillis, double maxMillis) {
+            return random -> Math.round(1000 * (minMillis + random.nextDouble() * (maxMillis - minMillis)));
+        }
+
+        /**
+         * Log-normal latency, the usual shape of model-serving response times:
+         * most requests near the median with a long right tail controlled by sigma.
+         */
+        static LatencyDistribution logNormal(double medianMillis, double sigma) {
+            double mu = Math.log(medianMillis);
+            return random -> Math.round(1000 * Math.exp(mu + sigma * random.nextGaussian()));
+        }
+
+        /**
+         * Parses "none", "fixed:5", "uniform:1:10" or "lognormal:8:0.6".
+         */
+        static LatencyDistribution parse(String spec) {
+            String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+            return switch (parts[0]) {
+                case "none" -> none();
+                case "fixed" -> fixed(Double.parseDouble(parts[1]));
+                case "uniform" -> uniform(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal" -> logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            };
+        }
+    }
+}
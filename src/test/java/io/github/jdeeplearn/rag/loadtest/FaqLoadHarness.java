@@ -0,0 +1,254 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.index.VectorSearchIndexManager;
+import io.github.jdeeplearn.rag.loadtest.EmbeddingStandIn.LatencyDistribution;
+import io.github.jdeeplearn.rag.service.EmbeddingClient;
+import io.github.jdeeplearn.rag.service.FaqUploaderService;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.sink.CouchbaseFaqSink;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.github.jdeeplearn.rag.service.FaqUploaderServiceBuilder.uploader;
+import static org.mockito.Mockito.mock;
+
+/**
+ * End-to-end throughput harness for FaqUploaderService.
+ *
+ * Wires the real service and the real EmbeddingClient (HTTP included) against an
+ * EmbeddingStandIn and an InMemoryFaqRepository, then reports docs/sec,
+ * per-stage p50/p99 and peak heap. Optionally round-trips the corpus through a
+ * faq.json-shaped file so parsing is measured as well.
+ */
+final class FaqLoadHarness {
+
+    private final int corpusSize;
+    private final long seed;
+    private final int dim;
+    private final int threads;
+    private final LatencyDistribution embedLatency;
+    private final double embedErrorRate;
+    private final long writeLatencyMicros;
+    private final boolean viaFile;
+    private final boolean retainDocuments;
+
+    private FaqLoadHarness(Builder builder) {
+        this.corpusSize = builder.corpusSize;
+        this.seed = builder.seed;
+        this.dim = builder.dim;
+        this.threads = builder.threads;
+        this.embedLatency = builder.embedLatency;
+        this.embedErrorRate = builder.embedErrorRate;
+        this.writeLatencyMicros = builder.writeLatencyMicros;
+        this.viaFile = builder.viaFile;
+        this.retainDocuments = builder.retainDocuments;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    LoadTestReport run() throws Exception {
+        StageRecorder parseStage = new StageRecorder("parse");
+        StageRecorder embedStage = new StageRecorder("embed");
+        StageRecorder writeStage = new StageRecorder("write");
+
+        try (EmbeddingStandIn standIn = new EmbeddingStandIn(dim, embedLatency, embedErrorRate).start();
+             HeapSampler heap = HeapSampler.start()) {
+
+            EmbeddingClient embeddingClient = new TimedEmbeddingClient(standIn.url(), embedStage);
+            InMemoryFaqRepository repository = new InMemoryFaqRepository(writeStage, retainDocuments, writeLatencyMicros);
+            FaqUploaderService service = uploader(embeddingClient, new CouchbaseFaqSink(repository), mock(VectorSearchIndexManager.class))
+                    .embeddingDim(dim)
+                    .threads(threads)
+                    .build();
+
+            long start = System.nanoTime();
+            try {
+                List<FaqInput> faqs = viaFile ? parseFromFile(parseStage) : SyntheticFaqCorpus.of(corpusSize, seed);
+                service.uploadFaqs(faqs);
+            } finally {
+                service.shutdown();
+            }
+            double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            List<LoadTestReport.StageStats> stages = new ArrayList<>();
+            if (viaFile) {
+                stages.add(LoadTestReport.StageStats.of(parseStage));
+            }
+            stages.add(LoadTestReport.StageStats.of(embedStage));
+            stages.add(LoadTestReport.StageStats.of(writeStage));
+
+            return new LoadTestReport(
+                    corpusSize,
+                    repository.writeCount(),
+                    standIn.errorCount(),
+                    elapsedSeconds,
+                    heap.peakBytes(),
+                    stages
+            );
+        }
+    }
+
+    private List<FaqInput> parseFromFile(StageRecorder parseStage) throws Exception {
+        Path file = Files.createTempFile("synthetic-faq-", ".json");
+        try {
+            SyntheticFaqCorpus.of(corpusSize, seed).writeJson(file);
+            // Same mapper configuration as FaqLoaderCommand
+            ObjectMapper mapper = new ObjectMapper()
+                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+            long start = System.nanoTime();
+            try (InputStream is = Files.newInputStream(file)) {
+                List<FaqInput> faqs = mapper.readValue(is, new TypeReference<>() {});
+                parseStage.record(System.nanoTime() - start);
+                return faqs;
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Real EmbeddingClient whose embed() calls are timed into the "embed" stage.
+     */
+    private static final class TimedEmbeddingClient extends EmbeddingClient {
+
+        private final StageRecorder stage;
+
+        TimedEmbeddingClient(String baseUrl, StageRecorder stage) {
+            super(baseUrl, "synthetic-model", "synthetic", 30_000, "ewma", 3, 10_000, false, 95, 20, HttpTransport.shared());
+            this.stage = stage;
+        }
+
+        @Override
+        public float[] embed(String text) {
+            long start = System.nanoTime();
+            try {
+                return super.embed(text);
+            } finally {
+                stage.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Samples used heap on a daemon thread; more faithful than summing per-pool peaks.
+     */
+    private static final class HeapSampler implements AutoCloseable {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final AtomicLong peak = new AtomicLong();
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final Thread thread;
+
+        private HeapSampler() {
+            this.thread = new Thread(this::loop, "load-harness-heap-sampler");
+            this.thread.setDaemon(true);
+        }
+
+        static HeapSampler start() {
+            HeapSampler sampler = new HeapSampler();
+            sampler.thread.start();
+            return sampler;
+        }
+
+        long peakBytes() {
+            sample();
+            return peak.get();
+        }
+
+        private void loop() {
+            while (running.get()) {
+                sample();
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void sample() {
+            peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        }
+
+        @Override
+        public void close() {
+            running.set(false);
+            thread.interrupt();
+        }
+    }
+
+    static final class Builder {
+        private int corpusSize = 10_000;
+        private long seed = 42L;
+        private int dim = 768;
+        private int threads = 4;
+        private LatencyDistribution embedLatency = LatencyDistribution.none();
+        private double embedErrorRate;
+        private long writeLatencyMicros;
+        private boolean viaFile;
+        private boolean retainDocuments;
+
+        Builder corpusSize(int corpusSize) {
+            this.corpusSize = corpusSize;
+            return this;
+        }
+
+        Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        Builder dim(int dim) {
+            this.dim = dim;
+            return this;
+        }
+
+        Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        Builder embedLatency(LatencyDistribution embedLatency) {
+            this.embedLatency = embedLatency;
+            return this;
+        }
+
+        Builder embedErrorRate(double embedErrorRate) {
+            this.embedErrorRate = embedErrorRate;
+            return this;
+        }
+
+        Builder writeLatencyMicros(long writeLatencyMicros) {
+            this.writeLatencyMicros = writeLatencyMicros;
+            return this;
+        }
+
+        Builder viaFile(boolean viaFile) {
+            this.viaFile = viaFile;
+            return this;
+        }
+
+        Builder retainDocuments(boolean retainDocuments) {
+            this.retainDocuments = retainDocuments;
+            return this;
+        }
+
+        FaqLoadHarness build() {
+            return new FaqLoadHarness(this);
+        }
+    }
+}
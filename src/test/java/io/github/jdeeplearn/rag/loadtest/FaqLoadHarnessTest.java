@@ -0,0 +1,76 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import io.github.jdeeplearn.rag.loadtest.EmbeddingStandIn.LatencyDistribution;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput harness for the loader pipeline.
+ *
+ * The smoke run keeps the harness itself honest on every build. The baseline run
+ * only executes when asked for and prints its report, e.g.:
+ *
+ *   mvn test -Dtest=FaqLoadHarnessTest -Dloadtest.size=1000000 \
+ *       -Dloadtest.threads=16 -Dloadtest.latency=lognormal:8:0.5 -Dloadtest.error-rate=0.001
+ */
+class FaqLoadHarnessTest {
+
+    @Test
+    void syntheticCorpusIsDeterministicAndShapedLikeFaqJson() {
+        SyntheticFaqCorpus first = SyntheticFaqCorpus.of(1_000, 7L);
+        SyntheticFaqCorpus second = SyntheticFaqCorpus.of(1_000, 7L);
+
+        assertThat(first).hasSize(1_000);
+        assertThat(first.get(999)).isEqualTo(second.get(999));
+
+        FaqInput faq = first.get(123);
+        assertThat(SyntheticFaqCorpus.CATEGORIES).contains(faq.category());
+        assertThat(faq.question()).endsWith("?").contains("#123");
+        assertThat(faq.answer()).isNotBlank();
+        assertThat(faq.image()).startsWith("https://");
+        assertThat(faq.link()).startsWith("https://");
+    }
+
+    @Test
+    void smokeRunReportsThroughputStagesAndHeap() throws Exception {
+        LoadTestReport report = FaqLoadHarness.builder()
+                .corpusSize(300)
+                .dim(768)
+                .threads(4)
+                .embedLatency(LatencyDistribution.uniform(0, 2))
+                .embedErrorRate(0.05)
+                .viaFile(true)
+                .build()
+                .run();
+
+        // Every record is either written or lost to an injected embedding failure
+        assertThat(report.documentsWritten() + report.embeddingErrors()).isEqualTo(300);
+        assertThat(report.docsPerSecond()).isPositive();
+        assertThat(report.peakHeapBytes()).isPositive();
+        assertThat(report.stage("parse").count()).isEqualTo(1);
+        assertThat(report.stage("embed").count()).isEqualTo(300);
+        assertThat(report.stage("write").count()).isEqualTo(report.documentsWritten());
+        assertThat(report.stage("embed").p99Millis()).isGreaterThanOrEqualTo(report.stage("embed").p50Millis());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "loadtest.size", matches = "\\d+")
+    void baselineRun() throws Exception {
+        LoadTestReport report = FaqLoadHarness.builder()
+                .corpusSize(Integer.getInteger("loadtest.size"))
+                .dim(Integer.getInteger("loadtest.dim", 768))
+                .threads(Integer.getInteger("loadtest.threads", 4))
+                .embedLatency(LatencyDistribution.parse(System.getProperty("loadtest.latency", "none")))
+                .embedErrorRate(Double.parseDouble(System.getProperty("loadtest.error-rate", "0")))
+                .writeLatencyMicros(Long.getLong("loadtest.write-latency-us", 0L))
+                .viaFile(Boolean.getBoolean("loadtest.via-file"))
+                .build()
+                .run();
+
+        System.out.println(report.format());
+        assertThat(report.documentsWritten()).isPositive();
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.jdeeplearn.rag.loadtest.EmbeddingStandIn.LatencyDistribution;
+import io.github.jdeeplearn.rag.service.FaqIds;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MockWebServer-backed stand-in for FTS KNN queries over a SyntheticFaqCorpus.
+ *
+ * Answers with k random corpus documents in the real response shape. When the
+ * request asks for stored fields they are included, and each hit costs an extra
+ * fieldLatencyMicros to model reading stored values from the index segments.
+ */
+final class FtsStandIn implements AutoCloseable {
+
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<FaqInput> corpus;
+    private final LatencyDistribution latency;
+    private final long fieldLatencyMicros;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    FtsStandIn(List<FaqInput> corpus, LatencyDistribution latency, long fieldLatencyMicros) {
+        this.corpus = corpus;
+        this.latency = latency;
+        this.fieldLatencyMicros = fieldLatencyMicros;
+        this.server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return respond(request);
+            }
+        });
+    }
+
+    FtsStandIn start() throws IOException {
+        server.start();
+        return this;
+    }
+
+    String url() {
+        return server.url("/").toString();
+    }
+
+    long requestCount() {
+        return requests.get();
+    }
+
+    long responseBytes() {
+        return responseBytes.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse respond(RecordedRequest request) {
+        requests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        JsonNode body;
+        try {
+            body = mapper.readTree(request.getBody().readUtf8());
+        } catch (IOException e) {
+            return new MockResponse().setResponseCode(400).setBody("{\"error\":\"bad request\"}");
+        }
+        int k = body.path("knn").path(0).path("k").asInt(10);
+        boolean withFields = body.has("fields");
+
+        sleepMicros(latency.sampleMicros(random) + (withFields ? k * fieldLatencyMicros : 0));
+
+        ObjectNode response = mapper.createObjectNode();
+        ArrayNode hits = response.putArray("hits");
+        for (int i = 0; i < k; i++) {
+            FaqInput faq = corpus.get(random.nextInt(corpus.size()));
+            ObjectNode hit = hits.addObject();
+            hit.put("index", "faq_vectors_stand_in");
+            hit.put("id", FaqIds.of(faq));
+            hit.put("score", 1.0 - i * 0.01);
+            if (withFields) {
+                ObjectNode fields = hit.putObject("fields");
+                fields.put("category", faq.category());
+                fields.put("question", faq.question());
+                fields.put("answer", faq.answer());
+                fields.put("image", faq.image());
+                fields.put("link", faq.link());
+            }
+        }
+        response.put("total_hits", k);
+
+        String json = response.toString();
+        responseBytes.addAndGet(json.length());
+        return new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Type", "application/json")
+                .setBody(json);
+    }
+
+    private static void sleepMicros(long micros) {
+        if (micros <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
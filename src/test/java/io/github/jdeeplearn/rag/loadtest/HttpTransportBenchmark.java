@@ -0,0 +1,213 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.loadtest.EmbeddingStandIn.LatencyDistribution;
+import io.github.jdeeplearn.rag.service.EmbeddingClient;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares HttpTransport settings for embedding traffic: HTTP/1.1 versus h2c, with
+ * and without gzip in both directions.
+ *
+ * Runs the real EmbeddingClient (embedBatch, as with embedding.batching.enabled)
+ * against an EmbeddingStandIn per variant and reports latency, throughput, bytes on
+ * the wire per call and connections opened.
+ */
+final class HttpTransportBenchmark {
+
+    enum Variant {
+        HTTP1(false, false),
+        HTTP1_GZIP(false, true),
+        H2C(true, false),
+        H2C_GZIP(true, true);
+
+        final boolean h2c;
+        final boolean gzip;
+
+        Variant(boolean h2c, boolean gzip) {
+            this.h2c = h2c;
+            this.gzip = gzip;
+        }
+    }
+
+    private final int calls;
+    private final int batchSize;
+    private final int dim;
+    private final int threads;
+    private final int maxConnections;
+    private final LatencyDistribution latency;
+
+    private HttpTransportBenchmark(Builder builder) {
+        this.calls = builder.calls;
+        this.batchSize = builder.batchSize;
+        this.dim = builder.dim;
+        this.threads = builder.threads;
+        this.maxConnections = builder.maxConnections;
+        this.latency = builder.latency;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    List<Result> run() throws Exception {
+        List<FaqInput> corpus = SyntheticFaqCorpus.of(batchSize * 64, 42L);
+        List<Result> results = new ArrayList<>();
+        for (Variant variant : Variant.values()) {
+            results.add(run(variant, corpus));
+        }
+        return results;
+    }
+
+    private Result run(Variant variant, List<FaqInput> corpus) throws Exception {
+        HttpTransport.Settings defaults = HttpTransport.Settings.defaults();
+        HttpTransport.Settings settings = new HttpTransport.Settings(
+                maxConnections,
+                defaults.maxPending(),
+                defaults.pendingTimeoutMs(),
+                defaults.maxIdleMs(),
+                defaults.maxLifeMs(),
+                defaults.evictionIntervalMs(),
+                defaults.connectTimeoutMs(),
+                variant.gzip,
+                variant.h2c,
+                variant.gzip,
+                defaults.minRequestBytesToGzip()
+        );
+
+        EmbeddingStandIn standIn = new EmbeddingStandIn(dim, latency, 0);
+        if (variant.h2c) {
+            standIn.h2c();
+        }
+        if (variant.gzip) {
+            standIn.gzip();
+        }
+
+        try (standIn; HttpTransport transport = new HttpTransport(settings)) {
+            standIn.start();
+            EmbeddingClient client = new EmbeddingClient(standIn.url(), "synthetic-model", "synthetic", 10_000,
+                    "ewma", 3, 10_000, false, 95, 20, transport);
+
+            StageRecorder recorder = new StageRecorder(variant.name().toLowerCase(Locale.ROOT));
+            LongAdder failures = new LongAdder();
+            ExecutorService callers = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            try {
+                List<Future<?>> pending = new ArrayList<>(calls);
+                for (int i = 0; i < calls; i++) {
+                    List<String> texts = batch(corpus, i);
+                    pending.add(callers.submit(() -> {
+                        long callStart = System.nanoTime();
+                        try {
+                            client.embedBatch(texts);
+                            recorder.record(System.nanoTime() - callStart);
+                        } catch (RuntimeException e) {
+                            failures.increment();
+                        }
+                    }));
+                }
+                for (Future<?> f : pending) {
+                    f.get();
+                }
+            } finally {
+                callers.shutdown();
+                callers.awaitTermination(10, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            return new Result(
+                    variant,
+                    LoadTestReport.StageStats.of(recorder),
+                    calls / seconds,
+                    (double) standIn.requestBytes() / Math.max(1, standIn.requestCount()),
+                    (double) standIn.responseBytes() / Math.max(1, standIn.requestCount()),
+                    standIn.connectionCount(),
+                    failures.sum()
+            );
+        }
+    }
+
+    private List<String> batch(List<FaqInput> corpus, int call) {
+        List<String> texts = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            texts.add(corpus.get((call * batchSize + i) % corpus.size()).question());
+        }
+        return texts;
+    }
+
+    static String format(List<Result> results) {
+        StringBuilder sb = new StringBuilder("HTTP transport benchmark\n");
+        sb.append(String.format(Locale.ROOT, "  %-10s %7s %9s %9s %9s %10s %10s %11s %6s%n",
+                "variant", "calls", "calls/s", "p50(ms)", "p99(ms)", "req B/call", "resp B/call", "connections",
+                "errors"));
+        for (Result r : results) {
+            sb.append(String.format(Locale.ROOT, "  %-10s %7d %9.0f %9.3f %9.3f %10.0f %10.0f %11d %6d%n",
+                    r.variant().name().toLowerCase(Locale.ROOT), r.latency().count(), r.callsPerSecond(),
+                    r.latency().p50Millis(), r.latency().p99Millis(), r.requestBytesPerCall(),
+                    r.responseBytesPerCall(), r.connections(), r.errors()));
+        }
+        return sb.toString();
+    }
+
+    record Result(
+            Variant variant,
+            LoadTestReport.StageStats latency,
+            double callsPerSecond,
+            double requestBytesPerCall,
+            double responseBytesPerCall,
+            long connections,
+            long errors
+    ) {}
+
+    static final class Builder {
+        private int calls = 2_000;
+        private int batchSize = 32;
+        private int dim = 768;
+        private int threads = 16;
+        private int maxConnections = 64;
+        private LatencyDistribution latency = LatencyDistribution.none();
+
+        Builder calls(int calls) {
+            this.calls = calls;
+            return this;
+        }
+
+        Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        Builder dim(int dim) {
+            this.dim = dim;
+            return this;
+        }
+
+        Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        Builder latency(LatencyDistribution latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        HttpTransportBenchmark build() {
+            return new HttpTransportBenchmark(this);
+        }
+    }
+}
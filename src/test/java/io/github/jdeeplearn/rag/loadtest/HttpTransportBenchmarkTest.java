@@ -0,0 +1,69 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import io.github.jdeeplearn.rag.loadtest.EmbeddingStandIn.LatencyDistribution;
+import io.github.jdeeplearn.rag.loadtest.HttpTransportBenchmark.Result;
+import io.github.jdeeplearn.rag.loadtest.HttpTransportBenchmark.Variant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HTTP/1.1 versus h2c, with and without gzip, against the embedding stand-in.
+ *
+ * The smoke run checks every variant works end to end, that gzip shrinks both
+ * directions and that connections are reused. The comparison run only executes
+ * when asked for and prints its table, e.g.:
+ *
+ *   mvn test -Dtest=HttpTransportBenchmarkTest -Dhttpbench.calls=20000 -Dhttpbench.batch-size=32 \
+ *       -Dhttpbench.threads=32 -Dhttpbench.latency=lognormal:8:0.5
+ */
+class HttpTransportBenchmarkTest {
+
+    @Test
+    void smokeRunComparesAllVariants() throws Exception {
+        List<Result> results = HttpTransportBenchmark.builder()
+                .calls(100)
+                .batchSize(8)
+                .threads(4)
+                .latency(LatencyDistribution.fixed(1))
+                .build()
+                .run();
+
+        assertThat(results).hasSize(Variant.values().length)
+                .allSatisfy(r -> {
+                    assertThat(r.errors()).isZero();
+                    assertThat(r.latency().count()).isEqualTo(100);
+                    // Kept alive and reused rather than one per call
+                    assertThat(r.connections()).isBetween(1L, 20L);
+                });
+        Result plain = result(results, Variant.HTTP1);
+        Result gzip = result(results, Variant.HTTP1_GZIP);
+        assertThat(gzip.responseBytesPerCall()).isLessThan(plain.responseBytesPerCall() / 2);
+        assertThat(gzip.requestBytesPerCall()).isLessThan(plain.requestBytesPerCall());
+        assertThat(result(results, Variant.H2C).connections()).isLessThanOrEqualTo(plain.connections());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "httpbench.calls", matches = "\\d+")
+    void comparisonRun() throws Exception {
+        List<Result> results = HttpTransportBenchmark.builder()
+                .calls(Integer.getInteger("httpbench.calls"))
+                .batchSize(Integer.getInteger("httpbench.batch-size", 32))
+                .dim(Integer.getInteger("httpbench.dim", 768))
+                .threads(Integer.getInteger("httpbench.threads", 16))
+                .maxConnections(Integer.getInteger("httpbench.max-connections", 64))
+                .latency(LatencyDistribution.parse(System.getProperty("httpbench.latency", "none")))
+                .build()
+                .run();
+
+        System.out.println(HttpTransportBenchmark.format(results));
+        assertThat(results).hasSize(Variant.values().length);
+    }
+
+    private static Result result(List<Result> results, Variant variant) {
+        return results.stream().filter(r -> r.variant() == variant).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import com.couchbase.client.java.Collection;
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.model.StoredFaq;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * In-memory stand-in for CouchbaseFaqRepository.
+ *
+ * Times every write into the "write" stage and optionally simulates KV latency.
+ * Documents are only retained when asked to, so multi-million runs measure the
+ * loader rather than the stand-in's own heap.
+ */
+class InMemoryFaqRepository extends CouchbaseFaqRepository {
+
+    private final boolean retainDocuments;
+    private final long writeLatencyMicros;
+    private final StageRecorder writeStage;
+    private final Map<String, FaqDocument> documents = new ConcurrentHashMap<>();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder vectorBytes = new LongAdder();
+
+    InMemoryFaqRepository(StageRecorder writeStage, boolean retainDocuments, long writeLatencyMicros) {
+        super(mock(Collection.class), "none");
+        this.writeStage = writeStage;
+        this.retainDocuments = retainDocuments;
+        this.writeLatencyMicros = writeLatencyMicros;
+    }
+
+    @Override
+    public void insertFaq(FaqDocument doc) {
+        long start = System.nanoTime();
+        if (doc == null) {
+            return;
+        }
+        if (writeLatencyMicros > 0) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(writeLatencyMicros);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (retainDocuments) {
+            documents.put(doc.getId(), doc);
+        }
+        writes.increment();
+        vectorBytes.add(4L * doc.getQuestionVector().length);
+        writeStage.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public void upsertFaq(FaqDocument doc) {
+        insertFaq(doc);
+    }
+
+    @Override
+    public Optional<StoredFaq> findStored(String id) {
+        FaqDocument doc = documents.get(id);
+        if (doc == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new StoredFaq(id, doc.getCategory(), doc.getQuestion(), doc.getAnswer(),
+                doc.getImage(), doc.getLink(), String.valueOf(doc.getMeta().get("model_name"))));
+    }
+
+    @Override
+    public void updateFields(String id, Map<String, String> fields) {
+        long start = System.nanoTime();
+        FaqDocument doc = documents.get(id);
+        if (doc != null) {
+            documents.put(id, FaqDocument.builder()
+                    .id(id)
+                    .type(doc.getType())
+                    .category(fields.getOrDefault("category", doc.getCategory()))
+                    .question(doc.getQuestion())
+                    .answer(fields.getOrDefault("answer", doc.getAnswer()))
+                    .image(fields.getOrDefault("image", doc.getImage()))
+                    .link(fields.getOrDefault("link", doc.getLink()))
+                    .questionVector(doc.getQuestionVector())
+                    .meta(doc.getMeta())
+                    .build());
+        }
+        writes.increment();
+        writeStage.record(System.nanoTime() - start);
+    }
+
+    long writeCount() {
+        return writes.sum();
+    }
+
+    long vectorBytes() {
+        return vectorBytes.sum();
+    }
+
+    Map<String, FaqDocument> documents() {
+        return documents;
+    }
+}
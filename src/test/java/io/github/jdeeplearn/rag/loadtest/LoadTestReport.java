@@ -0,0 +1,57 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of one harness run: overall throughput, per-stage latency and peak heap.
+ */
+record LoadTestReport(
+        int corpusSize,
+        long documentsWritten,
+        long embeddingErrors,
+        double elapsedSeconds,
+        long peakHeapBytes,
+        List<StageStats> stages
+) {
+
+    double docsPerSecond() {
+        return elapsedSeconds == 0 ? 0 : documentsWritten / elapsedSeconds;
+    }
+
+    StageStats stage(String name) {
+        return stages.stream()
+                .filter(s -> s.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No stage named " + name));
+    }
+
+    String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT,
+                "FAQ load harness: corpus=%d written=%d embedErrors=%d elapsed=%.2fs throughput=%.1f docs/s peakHeap=%.1f MiB%n",
+                corpusSize, documentsWritten, embeddingErrors, elapsedSeconds, docsPerSecond(),
+                peakHeapBytes / (1024.0 * 1024.0)));
+        sb.append(String.format(Locale.ROOT, "  %-8s %10s %10s %10s %10s %10s%n",
+                "stage", "count", "mean(ms)", "p50(ms)", "p99(ms)", "max(ms)"));
+        for (StageStats s : stages) {
+            sb.append(String.format(Locale.ROOT, "  %-8s %10d %10.3f %10.3f %10.3f %10.3f%n",
+                    s.name(), s.count(), s.meanMillis(), s.p50Millis(), s.p99Millis(), s.maxMillis()));
+        }
+        return sb.toString();
+    }
+
+    record StageStats(String name, long count, double meanMillis, double p50Millis, double p99Millis, double maxMillis) {
+
+        static StageStats of(StageRecorder recorder) {
+            return new StageStats(
+                    recorder.name(),
+                    recorder.count(),
+                    recorder.meanMillis(),
+                    recorder.percentileMillis(50),
+                    recorder.percentileMillis(99),
+                    recorder.maxMillis()
+            );
+        }
+    }
+}
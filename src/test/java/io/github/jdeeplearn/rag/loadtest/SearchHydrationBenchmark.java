@@ -0,0 +1,275 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import com.couchbase.client.java.Collection;
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.loadtest.EmbeddingStandIn.LatencyDistribution;
+import io.github.jdeeplearn.rag.model.StoredFaq;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.search.FaqSearchService;
+import io.github.jdeeplearn.rag.search.FaqSearchService.Hydration;
+import io.github.jdeeplearn.rag.search.VectorSearchClient;
+import io.github.jdeeplearn.rag.service.EmbeddingClient;
+import io.github.jdeeplearn.rag.service.FaqIds;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares search hydration modes: KV sub-document lookups per hit versus display
+ * fields returned by the index ("covering").
+ *
+ * Runs the real FaqSearchService and VectorSearchClient (HTTP included) against an
+ * FtsStandIn and an in-memory KV stand-in, with result caching disabled. Latencies of
+ * both stand-ins are configurable so the comparison can be fed with figures measured
+ * on a given deployment.
+ */
+final class SearchHydrationBenchmark {
+
+    private final int corpusSize;
+    private final int queries;
+    private final int k;
+    private final int threads;
+    private final int kvConcurrency;
+    private final LatencyDistribution ftsLatency;
+    private final long fieldLatencyMicros;
+    private final LatencyDistribution kvLatency;
+
+    private SearchHydrationBenchmark(Builder builder) {
+        this.corpusSize = builder.corpusSize;
+        this.queries = builder.queries;
+        this.k = builder.k;
+        this.threads = builder.threads;
+        this.kvConcurrency = builder.kvConcurrency;
+        this.ftsLatency = builder.ftsLatency;
+        this.fieldLatencyMicros = builder.fieldLatencyMicros;
+        this.kvLatency = builder.kvLatency;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    List<Result> run() throws Exception {
+        SyntheticFaqCorpus corpus = SyntheticFaqCorpus.of(corpusSize, 42L);
+        List<Result> results = new ArrayList<>();
+        try (FtsStandIn fts = new FtsStandIn(corpus, ftsLatency, fieldLatencyMicros).start()) {
+            for (Hydration mode : Hydration.values()) {
+                results.add(run(mode, corpus, fts));
+            }
+        }
+        return results;
+    }
+
+    private Result run(Hydration mode, List<FaqInput> corpus, FtsStandIn fts) throws Exception {
+        KvStandIn kv = new KvStandIn(corpus, kvLatency);
+        FaqSearchService search = new FaqSearchService(
+                new FixedVectorEmbeddingClient(),
+                new VectorSearchClient(fts.url(), "faq_vectors", "admin", "password", 10_000,
+                        HttpTransport.shared()),
+                kv,
+                k,
+                kvConcurrency,
+                queries,
+                0,
+                0,
+                mode.name(),
+                0
+        );
+
+        StageRecorder latency = new StageRecorder(mode.name().toLowerCase(Locale.ROOT));
+        LongAdder hits = new LongAdder();
+        long ftsRequestsBefore = fts.requestCount();
+        long ftsBytesBefore = fts.responseBytes();
+
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> pending = new ArrayList<>(queries);
+            for (int i = 0; i < queries; i++) {
+                // Distinct texts, so neither cache can short-circuit a query
+                String query = "benchmark query " + mode + " " + i;
+                pending.add(clients.submit(() -> {
+                    long start = System.nanoTime();
+                    hits.add(search.search(query, k).size());
+                    latency.record(System.nanoTime() - start);
+                }));
+            }
+            for (Future<?> f : pending) {
+                f.get();
+            }
+        } finally {
+            clients.shutdown();
+            clients.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        long ftsRequests = fts.requestCount() - ftsRequestsBefore;
+        return new Result(
+                mode,
+                LoadTestReport.StageStats.of(latency),
+                hits.sum(),
+                (double) kv.lookups() / queries,
+                (double) (fts.responseBytes() - ftsBytesBefore) / Math.max(1, ftsRequests)
+        );
+    }
+
+    static String format(List<Result> results) {
+        StringBuilder sb = new StringBuilder("Search hydration benchmark\n");
+        sb.append(String.format(Locale.ROOT, "  %-6s %8s %10s %10s %10s %12s %14s%n",
+                "mode", "queries", "mean(ms)", "p50(ms)", "p99(ms)", "kv reads/q", "fts bytes/q"));
+        for (Result r : results) {
+            sb.append(String.format(Locale.ROOT, "  %-6s %8d %10.3f %10.3f %10.3f %12.1f %14.0f%n",
+                    r.mode().name().toLowerCase(Locale.ROOT), r.latency().count(), r.latency().meanMillis(),
+                    r.latency().p50Millis(), r.latency().p99Millis(), r.kvReadsPerQuery(), r.ftsBytesPerQuery()));
+        }
+        return sb.toString();
+    }
+
+    record Result(
+            Hydration mode,
+            LoadTestReport.StageStats latency,
+            long hits,
+            double kvReadsPerQuery,
+            double ftsBytesPerQuery
+    ) {}
+
+    /**
+     * Query embedding is not what is being compared: answer instantly with a fixed vector.
+     */
+    private static final class FixedVectorEmbeddingClient extends EmbeddingClient {
+
+        private final float[] vector = new float[768];
+
+        FixedVectorEmbeddingClient() {
+            super("http://localhost:9", "synthetic-model", "synthetic", 1_000,
+                    "ewma", 3, 10_000, false, 95, 20, HttpTransport.shared());
+            Arrays.fill(vector, 0.036f);
+        }
+
+        @Override
+        public float[] embed(String text) {
+            return vector;
+        }
+    }
+
+    /**
+     * Batch sub-document lookups over the corpus. Lookups run in waves of
+     * kvConcurrency; each wave costs one latency sample, like concurrent requests
+     * whose round trips overlap.
+     */
+    private static final class KvStandIn extends CouchbaseFaqRepository {
+
+        private final Map<String, StoredFaq> documents = new HashMap<>();
+        private final LatencyDistribution latency;
+        private final LongAdder lookups = new LongAdder();
+
+        KvStandIn(List<FaqInput> corpus, LatencyDistribution latency) {
+            super(mock(Collection.class), "none");
+            this.latency = latency;
+            for (FaqInput faq : corpus) {
+                String id = FaqIds.of(faq);
+                documents.put(id, new StoredFaq(id, faq.category(), faq.question(), faq.answer(),
+                        faq.image(), faq.link(), "synthetic-model"));
+            }
+        }
+
+        @Override
+        public Map<String, StoredFaq> findStored(List<String> ids, int concurrency) {
+            if (ids.isEmpty()) {
+                return Map.of();
+            }
+            int waves = (ids.size() + concurrency - 1) / concurrency;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long micros = 0;
+            for (int i = 0; i < waves; i++) {
+                micros += latency.sampleMicros(random);
+            }
+            if (micros > 0) {
+                try {
+                    TimeUnit.MICROSECONDS.sleep(micros);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            lookups.add(ids.size());
+            Map<String, StoredFaq> found = new HashMap<>();
+            for (String id : ids) {
+                StoredFaq faq = documents.get(id);
+                if (faq != null) {
+                    found.put(id, faq);
+                }
+            }
+            return found;
+        }
+
+        long lookups() {
+            return lookups.sum();
+        }
+    }
+
+    static final class Builder {
+        private int corpusSize = 10_000;
+        private int queries = 1_000;
+        private int k = 5;
+        private int threads = 4;
+        private int kvConcurrency = 16;
+        private LatencyDistribution ftsLatency = LatencyDistribution.none();
+        private long fieldLatencyMicros;
+        private LatencyDistribution kvLatency = LatencyDistribution.none();
+
+        Builder corpusSize(int corpusSize) {
+            this.corpusSize = corpusSize;
+            return this;
+        }
+
+        Builder queries(int queries) {
+            this.queries = queries;
+            return this;
+        }
+
+        Builder k(int k) {
+            this.k = k;
+            return this;
+        }
+
+        Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        Builder kvConcurrency(int kvConcurrency) {
+            this.kvConcurrency = kvConcurrency;
+            return this;
+        }
+
+        Builder ftsLatency(LatencyDistribution ftsLatency) {
+            this.ftsLatency = ftsLatency;
+            return this;
+        }
+
+        Builder fieldLatencyMicros(long fieldLatencyMicros) {
+            this.fieldLatencyMicros = fieldLatencyMicros;
+            return this;
+        }
+
+        Builder kvLatency(LatencyDistribution kvLatency) {
+            this.kvLatency = kvLatency;
+            return this;
+        }
+
+        SearchHydrationBenchmark build() {
+            return new SearchHydrationBenchmark(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import io.github.jdeeplearn.rag.loadtest.EmbeddingStandIn.LatencyDistribution;
+import io.github.jdeeplearn.rag.loadtest.SearchHydrationBenchmark.Result;
+import io.github.jdeeplearn.rag.search.FaqSearchService.Hydration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * KV hydration versus covering (index-stored fields) search.
+ *
+ * The smoke run checks both modes return the same number of hits and that covering
+ * mode does no KV reads. The comparison run only executes when asked for and
+ * prints its table, e.g.:
+ *
+ *   mvn test -Dtest=SearchHydrationBenchmarkTest -Dsearchbench.queries=20000 -Dsearchbench.k=10 \
+ *       -Dsearchbench.fts-latency=lognormal:6:0.4 -Dsearchbench.field-latency-us=40 \
+ *       -Dsearchbench.kv-latency=lognormal:0.8:0.3
+ */
+class SearchHydrationBenchmarkTest {
+
+    @Test
+    void smokeRunComparesBothModes() throws Exception {
+        List<Result> results = SearchHydrationBenchmark.builder()
+                .corpusSize(500)
+                .queries(100)
+                .k(5)
+                .kvLatency(LatencyDistribution.fixed(0.2))
+                .build()
+                .run();
+
+        Result kv = results.stream().filter(r -> r.mode() == Hydration.KV).findFirst().orElseThrow();
+        Result index = results.stream().filter(r -> r.mode() == Hydration.INDEX).findFirst().orElseThrow();
+        assertThat(kv.hits()).isEqualTo(500);
+        assertThat(index.hits()).isEqualTo(500);
+        assertThat(kv.kvReadsPerQuery()).isEqualTo(5.0);
+        assertThat(index.kvReadsPerQuery()).isZero();
+        assertThat(index.ftsBytesPerQuery()).isGreaterThan(kv.ftsBytesPerQuery());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "searchbench.queries", matches = "\\d+")
+    void comparisonRun() throws Exception {
+        List<Result> results = SearchHydrationBenchmark.builder()
+                .corpusSize(Integer.getInteger("searchbench.corpus-size", 100_000))
+                .queries(Integer.getInteger("searchbench.queries"))
+                .k(Integer.getInteger("searchbench.k", 5))
+                .threads(Integer.getInteger("searchbench.threads", 8))
+                .kvConcurrency(Integer.getInteger("searchbench.kv-concurrency", 16))
+                .ftsLatency(LatencyDistribution.parse(System.getProperty("searchbench.fts-latency", "none")))
+                .fieldLatencyMicros(Long.getLong("searchbench.field-latency-us", 0L))
+                .kvLatency(LatencyDistribution.parse(System.getProperty("searchbench.kv-latency", "none")))
+                .build()
+                .run();
+
+        System.out.println(SearchHydrationBenchmark.format(results));
+        assertThat(results).hasSize(2);
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.jdeeplearn.rag.loadtest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic, lazily generated FAQ corpus shaped like faq.json.
+ *
+ * Entries are derived from (seed, index) on every access, so a 10M-entry corpus
+ * costs no memory until the loader itself holds on to the records.
+ */
+final class SyntheticFaqCorpus extends AbstractList<FaqInput> implements RandomAccess {
+
+    static final List<String> CATEGORIES = List.of(
+            "Accounts", "Claims", "Integrations", "Mobile App", "Notifications",
+            "Payments", "Policy", "Security", "Technical Support"
+    );
+
+    private static final String[] OPENERS = {
+            "How do I", "How can I", "Can I", "What happens if I", "Where do I", "Why can't I", "Is it possible to"
+    };
+
+    private static final String[] WORDS = {
+            "account", "claim", "policy", "payment", "invoice", "password", "profile", "device", "notification",
+            "document", "status", "renewal", "premium", "refund", "integration", "token", "login", "settings",
+            "dashboard", "support", "coverage", "beneficiary", "receipt", "statement", "address", "email",
+            "submit", "update", "cancel", "verify", "download", "upload", "track", "change", "enable", "disable",
+            "mobile", "online", "secure", "pending", "approved", "rejected", "monthly", "annual", "automatic"
+    };
+
+    private final int size;
+    private final long seed;
+
+    private SyntheticFaqCorpus(int size, long seed) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must be >= 0");
+        }
+        this.size = size;
+        this.seed = seed;
+    }
+
+    static SyntheticFaqCorpus of(int size, long seed) {
+        return new SyntheticFaqCorpus(size, seed);
+    }
+
+    @Override
+    public FaqInput get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+        }
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+
+        String category = CATEGORIES.get(random.nextInt(CATEGORIES.size()));
+        String question = OPENERS[random.nextInt(OPENERS.length)] + " "
+                + words(random, 3 + random.nextInt(18)) + " (#" + index + ")?";
+        String answer = capitalize(words(random, 15 + random.nextInt(90))) + ".";
+        String slug = category.toLowerCase().replace(' ', '-') + "-" + index;
+
+        return new FaqInput(
+                category,
+                question,
+                answer,
+                "https://example.com/images/" + slug + ".png",
+                "https://example.com/docs/" + slug
+        );
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Streams the corpus to a JSON array file in the same shape as faq.json.
+     */
+    void writeJson(Path target) throws IOException {
+        try (JsonGenerator gen = new JsonFactory().createGenerator(target.toFile(), JsonEncoding.UTF8)) {
+            gen.writeStartArray();
+            for (int i = 0; i < size; i++) {
+                FaqInput faq = get(i);
+                gen.writeStartObject();
+                gen.writeStringField("category", faq.category());
+                gen.writeStringField("question", faq.question());
+                gen.writeStringField("answer", faq.answer());
+                gen.writeStringField("image", faq.image());
+                gen.writeStringField("link", faq.link());
+                gen.writeStringField("last_updated", "2025-11-02");
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder sb = new StringBuilder(count * 8);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
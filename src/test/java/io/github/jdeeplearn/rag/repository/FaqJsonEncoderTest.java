@@ -0,0 +1,122 @@
+package io.github.jdeeplearn.rag.repository;
+
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.codec.RawJsonTranscoder;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.InsertOptions;
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.model.StoredContent;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifies that FaqJsonEncoder:
+ *  - Produces the same document content as the former JsonObject tree
+ *  - Keeps float precision for every vector element
+ *  - Is what CouchbaseFaqRepository stores, through RawJsonTranscoder
+ *  - Can stream question_vector back out of stored bytes
+ *  - Can stream the content, model and vector shape back out of stored bytes
+ */
+class FaqJsonEncoderTest {
+
+    @Test
+    void shouldEncodeSameContentAsJsonObjectTree() {
+        FaqDocument doc = doc("faq-1", 768);
+
+        JsonObject encoded = JsonObject.fromJson(FaqJsonEncoder.toBytes(doc));
+
+        JsonArray vector = JsonArray.create();
+        for (float v : doc.getQuestionVector()) {
+            vector.add(v);
+        }
+        JsonObject tree = JsonObject.create()
+                .put("type", doc.getType())
+                .put("category", doc.getCategory())
+                .put("question", doc.getQuestion())
+                .put("answer", doc.getAnswer())
+                .put("image", doc.getImage())
+                .put("link", doc.getLink())
+                .put("question_vector", vector)
+                .put("meta", JsonObject.from(doc.getMeta()));
+
+        assertThat(encoded.getNames()).isEqualTo(tree.getNames());
+        assertThat(encoded.getString("question")).isEqualTo(tree.getString("question"));
+        assertThat(encoded.get("image")).isNull();
+        assertThat(encoded.getObject("meta").toMap()).isEqualTo(tree.getObject("meta").toMap());
+
+        JsonArray encodedVector = encoded.getArray("question_vector");
+        assertThat(encodedVector.size()).isEqualTo(768);
+        for (int i = 0; i < 768; i++) {
+            assertThat(encodedVector.getNumber(i).floatValue()).isEqualTo(doc.getQuestionVector()[i]);
+        }
+    }
+
+    @Test
+    void shouldEncodeNdjsonLineWithKeyAndNewline() {
+        FaqJsonEncoder.Buffer line = FaqJsonEncoder.encodeLine(doc("faq-2", 4));
+
+        String text = new String(line.array(), 0, line.size(), StandardCharsets.UTF_8);
+        assertThat(text).startsWith("{\"id\":\"faq-2\",").endsWith("}\n");
+    }
+
+    @Test
+    void shouldReadQuestionVectorBackFromStoredBytes() {
+        FaqDocument doc = doc("faq-4", 1536);
+
+        assertThat(FaqJsonEncoder.readQuestionVector(FaqJsonEncoder.toBytes(doc))).containsExactly(doc.getQuestionVector());
+        assertThat(FaqJsonEncoder.readQuestionVector("{\"question\":\"q\",\"meta\":{\"a\":[1]}}".getBytes(StandardCharsets.UTF_8)))
+                .isNull();
+    }
+
+    @Test
+    void shouldReadContentBackFromStoredBytes() {
+        FaqDocument doc = doc("faq-5", 64);
+
+        StoredContent content = FaqJsonEncoder.readContent(FaqJsonEncoder.toBytes(doc));
+
+        assertThat(content.question()).isEqualTo(doc.getQuestion());
+        assertThat(content.answer()).isEqualTo(doc.getAnswer());
+        assertThat(content.image()).isNull();
+        assertThat(content.link()).isEqualTo(doc.getLink());
+        assertThat(content.modelName()).isEqualTo("granite-embedding-english-r2");
+        assertThat(content.vectorDim()).isEqualTo(64);
+        assertThat(content.vectorFinite()).isTrue();
+        assertThat(content.vectorNorm()).isPositive();
+    }
+
+    @Test
+    void repositoryShouldStoreRawJsonBytes() {
+        Collection collection = mock(Collection.class);
+        CouchbaseFaqRepository repository = new CouchbaseFaqRepository(collection, "none");
+        FaqDocument doc = doc("faq-3", 16);
+
+        repository.insertFaq(doc);
+
+        ArgumentCaptor<Object> content = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<InsertOptions> options = ArgumentCaptor.forClass(InsertOptions.class);
+        verify(collection).insert(eq("faq-3"), content.capture(), options.capture());
+
+        assertThat(content.getValue()).isInstanceOf(byte[].class);
+        assertThat((byte[]) content.getValue()).isEqualTo(FaqJsonEncoder.toBytes(doc));
+        assertThat(options.getValue().build().transcoder()).isSameAs(RawJsonTranscoder.INSTANCE);
+    }
+
+    private static FaqDocument doc(String id, int dim) {
+        float[] vector = new float[dim];
+        for (int i = 0; i < dim; i++) {
+            vector[i] = (float) Math.sin(i) * 0.05f;
+        }
+        return FaqDocument.of(id, "Claims", "How do I submit a \"new\" claim?", "Use the portal.\nThen wait.",
+                null, "https://example.com/docs/" + id, vector,
+                "ibm-granite", "granite-embedding-english-r2", dim, "cosine", "faq-loader", "v1.0.0");
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.jdeeplearn.rag.search;
+
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.model.FaqSearchHit;
+import io.github.jdeeplearn.rag.model.StoredFaq;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.service.EmbeddingClient;
+import io.github.jdeeplearn.rag.service.FaqsIngestedEvent;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies that FaqSearchService:
+ *  - Sends a KNN query on question_vector to the FTS index
+ *  - Adds a category term prefilter to the KNN request when asked to
+ *  - Hydrates hits from KV in score order, skipping keys that no longer exist
+ *  - In covering mode, takes display fields from the index and reads KV only for uncovered hits
+ *  - Serves repeated queries from the result cache (no embedding, no FTS)
+ *  - Re-queries FTS after ingestion but keeps the cached query embedding
+ *  - Embeds the query as typed and uses its normalized form only as the cache key
+ */
+class FaqSearchServiceTest {
+
+    private static final String KNN_RESPONSE = """
+            {"status":{"total":1,"failed":0,"successful":1},
+             "hits":[{"index":"faq_vectors_1","id":"faq-2","score":0.91},
+                     {"index":"faq_vectors_1","id":"faq-gone","score":0.80},
+                     {"index":"faq_vectors_1","id":"faq-1","score":0.75}],
+             "total_hits":3,"took":1200}
+            """;
+
+    private MockWebServer fts;
+    private EmbeddingClient embeddingClient;
+    private CouchbaseFaqRepository repository;
+    private FaqSearchService searchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fts = new MockWebServer();
+        fts.start();
+
+        embeddingClient = mock(EmbeddingClient.class);
+        when(embeddingClient.embed(anyString())).thenReturn(new float[]{0.1f, 0.2f, 0.3f});
+
+        repository = mock(CouchbaseFaqRepository.class);
+        when(repository.findStored(anyList(), anyInt())).thenReturn(Map.of(
+                "faq-1", new StoredFaq("faq-1", "Accounts", "How do I reset my password?", "Go to settings.", null, null, "m"),
+                "faq-2", new StoredFaq("faq-2", "Accounts", "I forgot my password", "Use the reset link.", null, "https://x/reset", "m")
+        ));
+
+        VectorSearchClient vectorSearch = new VectorSearchClient(fts.url("/").toString(), "faq_vectors", "admin", "password", 2000,
+                HttpTransport.shared());
+        searchService = new FaqSearchService(embeddingClient, vectorSearch, repository, 50, 8, 100, 100, 300, "kv", 0);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        fts.shutdown();
+    }
+
+    @Test
+    void shouldQueryKnnAndHydrateHitsInScoreOrder() throws Exception {
+        fts.enqueue(knnResponse());
+
+        List<FaqSearchHit> hits = searchService.search("Forgot my password", 3);
+
+        assertThat(hits).extracting(FaqSearchHit::id).containsExactly("faq-2", "faq-1");
+        assertThat(hits.get(0).score()).isEqualTo(0.91);
+        assertThat(hits.get(0).answer()).isEqualTo("Use the reset link.");
+
+        RecordedRequest request = fts.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        assertThat(request.getMethod()).isEqualTo("POST");
+        assertThat(request.getPath()).isEqualTo("/api/index/faq_vectors/query");
+        String body = request.getBody().readUtf8();
+        assertThat(body).contains("\"field\":\"question_vector\"").contains("\"k\":3").contains("\"size\":3");
+    }
+
+    @Test
+    void categoryShouldBeSentAsKnnPrefilterAndCachedSeparately() throws Exception {
+        fts.enqueue(knnResponse());
+        fts.enqueue(knnResponse());
+
+        searchService.search("Forgot my password", 3);
+        searchService.search("Forgot my password", 3, "Claims");
+
+        assertThat(fts.takeRequest(1, TimeUnit.SECONDS).getBody().readUtf8()).doesNotContain("\"filter\"");
+        assertThat(fts.takeRequest(1, TimeUnit.SECONDS).getBody().readUtf8())
+                .contains("\"filter\":{")
+                .contains("\"term\":\"Claims\"")
+                .contains("\"field\":\"category\"");
+        // Same query text, different filter: one embedding, two KNN requests
+        verify(embeddingClient, times(1)).embed(anyString());
+    }
+
+    @Test
+    void queryShouldBeEmbeddedAsTypedAndCachedByNormalizedText() {
+        fts.enqueue(knnResponse());
+        fts.enqueue(knnResponse());
+
+        searchService.search("  Forgot my PASSWORD ", 3, "Claims");
+        searchService.search("forgot my  password", 3);
+
+        verify(embeddingClient, times(1)).embed("  Forgot my PASSWORD ");
+        verify(embeddingClient, times(1)).embed(anyString());
+    }
+
+    @Test
+    void coveringModeShouldUseIndexFieldsAndReadKvOnlyForUncoveredHits() throws Exception {
+        FaqSearchService covering = new FaqSearchService(embeddingClient,
+                new VectorSearchClient(fts.url("/").toString(), "faq_vectors", "admin", "password", 2000,
+                        HttpTransport.shared()),
+                repository, 50, 8, 100, 100, 300, "index", 0);
+        fts.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Type", "application/json")
+                .setBody("""
+                        {"hits":[{"id":"faq-9","score":0.95,
+                                  "fields":{"category":"Claims","question":"How do I file a claim?","answer":"Online."}},
+                                 {"id":"faq-1","score":0.70}],
+                         "total_hits":2}
+                        """));
+
+        List<FaqSearchHit> hits = covering.search("file a claim", 2);
+
+        assertThat(hits).extracting(FaqSearchHit::id).containsExactly("faq-9", "faq-1");
+        assertThat(hits.get(0).answer()).isEqualTo("Online.");
+        assertThat(hits.get(0).link()).isNull();
+        assertThat(hits.get(1).question()).isEqualTo("How do I reset my password?");
+        verify(repository).findStored(List.of("faq-1"), 8);
+        assertThat(fts.takeRequest(1, TimeUnit.SECONDS).getBody().readUtf8())
+                .contains("\"fields\":[\"category\",\"question\",\"answer\",\"image\",\"link\"]");
+    }
+
+    @Test
+    void repeatedQueriesShouldBeServedFromCacheUntilIngestion() {
+        fts.enqueue(knnResponse());
+        fts.enqueue(knnResponse());
+
+        searchService.search("Forgot my password", 3);
+        List<FaqSearchHit> repeated = searchService.search("  forgot   my PASSWORD ", 3);
+
+        assertThat(repeated).hasSize(2);
+        assertThat(fts.getRequestCount()).isEqualTo(1);
+        verify(embeddingClient, times(1)).embed(anyString());
+        verify(repository, times(1)).findStored(anyList(), anyInt());
+        assertThat(searchService.getResultCacheHits()).isEqualTo(1);
+
+        searchService.onIngested(new FaqsIngestedEvent(1, 0));
+        searchService.search("Forgot my password", 3);
+
+        // Results recomputed, query embedding reused
+        assertThat(fts.getRequestCount()).isEqualTo(2);
+        verify(embeddingClient, times(1)).embed(anyString());
+        assertThat(searchService.getEmbeddingCacheHits()).isEqualTo(1);
+    }
+
+    private static MockResponse knnResponse() {
+        return new MockResponse()
+                .setResponseCode(200)
+                .setBody(KNN_RESPONSE)
+                .addHeader("Content-Type", "application/json");
+    }
+}
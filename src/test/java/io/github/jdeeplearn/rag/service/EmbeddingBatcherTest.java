@@ -0,0 +1,212 @@
+package io.github.jdeeplearn.rag.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.model.EmbeddingRequest;
+import io.github.jdeeplearn.rag.service.EmbeddingBatcher.Pending;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that EmbeddingBatcher:
+ *  - only batches texts of similar length and keeps the padded cost within the budget
+ *  - hands every caller the vector of its own text, even when the service reorders items
+ *  - resizes the budget from observed latency and the reported total_chars
+ *  - returns empty vectors when a batch request fails
+ *  - rejects a batch whose item indexes are duplicated or out of range
+ */
+class EmbeddingBatcherTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Queue<List<String>> batches = new ConcurrentLinkedQueue<>();
+    private MockWebServer server;
+    private EmbeddingBatcher batcher;
+    private volatile boolean reverseItems;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return respond(request);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+        server.shutdown();
+    }
+
+    @Test
+    void shouldPackSimilarLengthTextsUpToTheBudget() {
+        batcher = batcher(1000, 0);
+
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            texts.add("q" + "x".repeat(8) + (char) ('a' + i));
+        }
+        for (int i = 0; i < 4; i++) {
+            texts.add("y".repeat(399) + i);
+        }
+        Collections.shuffle(texts);
+
+        List<CompletableFuture<float[]>> results = new ArrayList<>();
+        texts.forEach(text -> results.add(batcher.submit(text)));
+
+        for (int i = 0; i < texts.size(); i++) {
+            float[] vector = results.get(i).orTimeout(5, TimeUnit.SECONDS).join();
+            assertThat(vector).containsExactly(texts.get(i).length(), texts.get(i).hashCode());
+        }
+
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(texts.size());
+        for (List<String> batch : batches) {
+            int shortest = batch.stream().mapToInt(String::length).min().orElseThrow();
+            int longest = batch.stream().mapToInt(String::length).max().orElseThrow();
+            assertThat(longest).isLessThan(2 * shortest);
+            if (batch.size() > 1) {
+                assertThat(batch.size() * longest).isLessThanOrEqualTo(1000);
+            }
+        }
+        // 20 short questions fit a single request; the long ones go two at a time
+        assertThat(batches).hasSize(3);
+    }
+
+    @Test
+    void shouldSizeBudgetFromLatencyAndReportedChars() {
+        batcher = batcher(8000, 100);
+
+        // 10 x 100 chars in 200 ms: 0.2 ms per char, so 500 chars fit the 100 ms target
+        batcher.observe(pendings(10, 100), 1000, TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(batcher.budget()).isEqualTo(500);
+
+        // The service only processed half of the input (e.g. truncation): same cost per char
+        EmbeddingBatcher truncating = batcher(8000, 100);
+        try {
+            truncating.observe(pendings(10, 100), 500, TimeUnit.MILLISECONDS.toNanos(100));
+            assertThat(truncating.budget()).isEqualTo(500);
+        } finally {
+            truncating.shutdown();
+        }
+    }
+
+    @Test
+    void shouldReturnEmptyVectorsWhenBatchFails() {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setResponseCode(503).setBody("{\"error\":\"unavailable\"}");
+            }
+        });
+        batcher = batcher(1000, 0);
+
+        CompletableFuture<float[]> first = batcher.submit("What is RAG?");
+        CompletableFuture<float[]> second = batcher.submit("What is KNN?");
+
+        assertThat(first.orTimeout(5, TimeUnit.SECONDS).join()).isEmpty();
+        assertThat(second.orTimeout(5, TimeUnit.SECONDS).join()).isEmpty();
+    }
+
+    @Test
+    void shouldPlaceVectorsByReportedIndex() {
+        reverseItems = true;
+        EmbeddingClient client = client();
+
+        List<String> texts = List.of("What is RAG?", "How do I reset my password?", "KNN?");
+        List<float[]> vectors = client.embedBatch(texts).vectors();
+
+        assertThat(vectors).hasSize(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            assertThat(vectors.get(i)).containsExactly(texts.get(i).length(), texts.get(i).hashCode());
+        }
+    }
+
+    @Test
+    void shouldRejectBatchWithDuplicatedIndex() {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .addHeader("Content-Type", "application/json")
+                        .setBody("{\"model\":\"test-model\",\"embedding_dim\":2,\"embeddings\":["
+                                + "{\"vector\":[1,2],\"index\":0},{\"vector\":[3,4],\"index\":0}]}");
+            }
+        });
+        EmbeddingClient client = client();
+
+        assertThatThrownBy(() -> client.embedBatch(List.of("What is RAG?", "What is KNN?")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("index 0");
+    }
+
+    private EmbeddingBatcher batcher(int budget, long targetLatencyMs) {
+        return new EmbeddingBatcher(client(), budget, 100, 65536, 1, 64, 50, targetLatencyMs, 2);
+    }
+
+    private EmbeddingClient client() {
+        return new EmbeddingClient(server.url("/").toString(), "test-model", "test", 5000,
+                "ewma", 3, 10_000, false, 95, 20, HttpTransport.shared());
+    }
+
+    private static List<Pending> pendings(int count, int length) {
+        List<Pending> pendings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            pendings.add(new Pending("x".repeat(length), length, System.nanoTime(), new CompletableFuture<>()));
+        }
+        return pendings;
+    }
+
+    // Vector [length, hashCode] per input, so tests can tell which text a vector belongs to
+    private MockResponse respond(RecordedRequest request) {
+        EmbeddingRequest body;
+        try {
+            body = mapper.readValue(request.getBody().readUtf8(), EmbeddingRequest.class);
+        } catch (IOException e) {
+            return new MockResponse().setResponseCode(400);
+        }
+        batches.add(body.inputs());
+
+        StringBuilder json = new StringBuilder("{\"model\":\"test-model\",\"embedding_dim\":2,\"embeddings\":[");
+        long totalChars = 0;
+        int count = body.inputs().size();
+        for (int n = 0; n < count; n++) {
+            int i = reverseItems ? count - 1 - n : n;
+            String text = body.inputs().get(i);
+            if (n > 0) {
+                json.append(',');
+            }
+            json.append("{\"vector\":[").append(text.length()).append(',').append(text.hashCode())
+                    .append("],\"index\":").append(i).append('}');
+            totalChars += text.length();
+        }
+        json.append("],\"metadata\":{\"total_chars\":").append(totalChars).append("}}");
+
+        return new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Type", "application/json")
+                .setBody(json.toString());
+    }
+}
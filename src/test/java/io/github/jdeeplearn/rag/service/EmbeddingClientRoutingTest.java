@@ -0,0 +1,135 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that EmbeddingClient with several endpoints:
+ *  - ejects a replica after consecutive failures and routes around it
+ *  - hedges a request that outlives the observed latency percentile
+ *  - keeps working with the single URL of the original configuration
+ */
+class EmbeddingClientRoutingTest {
+
+    private static final String VECTOR_RESPONSE =
+            "{\"model\":\"test-model\",\"embedding_dim\":2,\"embeddings\":[{\"vector\":[0.6,0.8],\"index\":0}]}";
+
+    private MockWebServer first;
+    private MockWebServer second;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        first = new MockWebServer();
+        second = new MockWebServer();
+        first.start();
+        second.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    void shouldEjectFailingReplica() {
+        first.setDispatcher(respondWith(() -> new MockResponse().setResponseCode(503)));
+        second.setDispatcher(respondWith(EmbeddingClientRoutingTest::ok));
+
+        EmbeddingClient client = new EmbeddingClient(urls(), "test-model", "test", 2000,
+                "least-outstanding", 2, 60_000, false, 95, 20, HttpTransport.shared());
+
+        int embedded = 0;
+        for (int i = 0; i < 10; i++) {
+            if (client.embed("What is RAG? " + i).length == 2) {
+                embedded++;
+            }
+        }
+
+        // Two failures eject the first replica; everything else lands on the second
+        assertThat(first.getRequestCount()).isEqualTo(2);
+        assertThat(second.getRequestCount()).isEqualTo(8);
+        assertThat(embedded).isEqualTo(8);
+    }
+
+    @Test
+    void shouldHedgeSlowRequestToAnotherReplica() {
+        // Whichever replica gets the slow question first stalls; the duplicate is answered at once
+        AtomicBoolean stalled = new AtomicBoolean();
+        AtomicInteger slowRequests = new AtomicInteger();
+        Dispatcher dispatcher = new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getBody().readUtf8().contains("slow")) {
+                    slowRequests.incrementAndGet();
+                    if (stalled.compareAndSet(false, true)) {
+                        return ok().setBodyDelay(3, TimeUnit.SECONDS);
+                    }
+                }
+                return ok();
+            }
+        };
+        first.setDispatcher(dispatcher);
+        second.setDispatcher(dispatcher);
+
+        EmbeddingClient client = new EmbeddingClient(urls(), "test-model", "test", 5000,
+                "ewma", 3, 10_000, true, 95, 20, HttpTransport.shared());
+
+        // Enough fast responses to know the p95
+        for (int i = 0; i < 25; i++) {
+            assertThat(client.embed("What is KNN? " + i)).hasSize(2);
+        }
+
+        long start = System.nanoTime();
+        float[] vector = client.embed("A slow question");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(vector).containsExactly(0.6f, 0.8f);
+        assertThat(slowRequests.get()).isEqualTo(2);
+        assertThat(elapsedMs).isLessThan(2000);
+    }
+
+    @Test
+    void singleUrlShouldStillWork() {
+        first.setDispatcher(respondWith(EmbeddingClientRoutingTest::ok));
+
+        EmbeddingClient client = new EmbeddingClient(first.url("/").toString(), "test-model", "test", 2000,
+                "ewma", 3, 10_000, false, 95, 20, HttpTransport.shared());
+
+        assertThat(client.embed("What is RAG?")).containsExactly(0.6f, 0.8f);
+        assertThat(first.getRequestCount()).isEqualTo(1);
+    }
+
+    private String urls() {
+        return first.url("/") + ", " + second.url("/");
+    }
+
+    private static MockResponse ok() {
+        return new MockResponse()
+                .setResponseCode(200)
+                .addHeader("Content-Type", "application/json")
+                .setBody(VECTOR_RESPONSE);
+    }
+
+    private static Dispatcher respondWith(Supplier<MockResponse> response) {
+        return new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return response.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.http.HttpTransport;
+import io.github.jdeeplearn.rag.service.EmbeddingEndpoints.Endpoint;
+import io.github.jdeeplearn.rag.service.EmbeddingEndpoints.LoadBalancing;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that EmbeddingEndpoints under EWMA routing:
+ *  - does not treat a replica without latency samples as free
+ *  - counts a request cancelled by its hedge as a latency sample
+ */
+class EmbeddingEndpointsTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final EmbeddingEndpoints endpoints = new EmbeddingEndpoints(HttpTransport.shared(),
+            List.of("http://replica-a:8000/", "http://replica-b:8000/"), LoadBalancing.EWMA, 3, 10_000, 95, 5000);
+    private final Endpoint a = endpoints.endpoints().get(0);
+    private final Endpoint b = endpoints.endpoints().get(1);
+
+    @Test
+    void unmeasuredReplicaShouldCostTheMeanOfTheMeasuredOnes() {
+        endpoints.succeeded(a, 10 * MS);
+        for (int i = 0; i < 3; i++) {
+            b.begin();
+        }
+
+        // b is assumed as fast as a, but has three requests in flight
+        assertThat(endpoints.pick(null)).isSameAs(a);
+
+        b.end();
+        b.end();
+        b.end();
+        a.begin();
+        a.begin();
+        assertThat(endpoints.pick(null)).isSameAs(b);
+    }
+
+    @Test
+    void replicaLosingToItsHedgeShouldStopBeingPickedFirst() {
+        endpoints.succeeded(b, 10 * MS);
+        endpoints.cancelled(a, 400 * MS);
+
+        assertThat(a.ewmaNanos()).isEqualTo(400.0 * MS);
+        assertThat(endpoints.pick(null)).isSameAs(b);
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.jdeeplearn.rag.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies that FairScheduler:
+ *  - splits workers between backlogged lanes in proportion to their weights
+ *  - serves a small lane promptly behind a large backlog of another lane
+ *  - runs queued work before closing and rejects work afterwards
+ */
+class FairSchedulerTest {
+
+    private final FairScheduler scheduler = new FairScheduler("test", 1);
+    private final List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void shouldDispatchBacklogsByWeight() throws Exception {
+        Executor heavy = scheduler.lane("heavy", 3);
+        Executor light = scheduler.lane("light", 1);
+
+        CountDownLatch release = blockWorker(heavy);
+        CountDownLatch done = new CountDownLatch(16);
+        for (int i = 0; i < 8; i++) {
+            heavy.execute(record("H", done));
+            light.execute(record("L", done));
+        }
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(order.subList(0, 8)).filteredOn("H"::equals).hasSize(6);
+    }
+
+    @Test
+    void smallLaneShouldNotWaitForLargeBacklog() throws Exception {
+        Executor large = scheduler.lane("large", 1);
+        Executor small = scheduler.lane("small", 1);
+
+        CountDownLatch release = blockWorker(large);
+        CountDownLatch done = new CountDownLatch(1003);
+        for (int i = 0; i < 1000; i++) {
+            large.execute(record("large", done));
+        }
+        for (int i = 0; i < 3; i++) {
+            small.execute(record("small", done));
+        }
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(order.lastIndexOf("small")).isLessThan(8);
+    }
+
+    @Test
+    void closeShouldDrainQueuedTasks() throws Exception {
+        Executor lane = scheduler.lane("only", 1);
+        CountDownLatch release = blockWorker(lane);
+        CountDownLatch done = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            lane.execute(record("task", done));
+        }
+        release.countDown();
+        scheduler.close();
+
+        assertThat(done.getCount()).isZero();
+        assertThatThrownBy(() -> lane.execute(() -> { }))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(() -> scheduler.lane("bad", 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Occupies the single worker until the returned latch is released, so later
+     * tasks queue up before anything is dispatched.
+     */
+    private static CountDownLatch blockWorker(Executor lane) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        lane.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        return release;
+    }
+
+    private Runnable record(String label, CountDownLatch done) {
+        return () -> {
+            order.add(label);
+            done.countDown();
+        };
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.index.VectorSearchIndexManager;
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.model.StoredFaq;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.service.FaqChangeClassifier.ChangeType;
+import io.github.jdeeplearn.rag.service.FaqChangeClassifier.Classification;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.sink.CouchbaseFaqSink;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.github.jdeeplearn.rag.service.FaqUploaderServiceBuilder.uploader;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies change detection:
+ *  - FaqChangeClassifier picks the cheapest sufficient update, re-embedding when the stored dim changes
+ *  - FaqUploaderService skips embedding for text-only changes and unchanged records
+ *  - A changed question is re-embedded and replaces the stored document
+ *  - Without an explicit id, a changed question is a new document and the old key is left behind
+ */
+class FaqChangeDetectionTest {
+
+    private static final String MODEL = "granite-embedding-english-r2";
+
+    private final FaqChangeClassifier classifier = new FaqChangeClassifier(MODEL, 0);
+
+    @Test
+    void classifierShouldDetectEachKindOfChange() {
+        FaqInput input = new FaqInput("Claims", "How do I submit a claim?", "Use the portal.", null, "https://x/a");
+
+        assertThat(classifier.classify(input, Optional.empty()).type()).isEqualTo(ChangeType.NEW);
+        assertThat(classifier.classify(input, Optional.of(stored(input, MODEL))).type()).isEqualTo(ChangeType.UNCHANGED);
+
+        StoredFaq otherQuestion = new StoredFaq("id", "Claims", "How do I file a claim?", "Use the portal.", null, "https://x/a", MODEL);
+        assertThat(classifier.classify(input, Optional.of(otherQuestion)).type()).isEqualTo(ChangeType.REEMBED);
+
+        assertThat(classifier.classify(input, Optional.of(stored(input, "e5-large-v2"))).type()).isEqualTo(ChangeType.REEMBED);
+
+        StoredFaq oldAnswer = new StoredFaq("id", "Payments", "How do I submit a claim?", "Old answer.", null, "https://x/a", MODEL);
+        Classification textOnly = classifier.classify(input, Optional.of(oldAnswer));
+        assertThat(textOnly.type()).isEqualTo(ChangeType.TEXT_ONLY);
+        assertThat(textOnly.changedFields()).containsOnlyKeys("category", "answer")
+                .containsEntry("answer", "Use the portal.");
+    }
+
+    @Test
+    void classifierShouldReembedWhenStoredDimChanges() {
+        FaqInput input = new FaqInput("Claims", "How do I submit a claim?", "Use the portal.", null, null);
+        FaqChangeClassifier truncating = new FaqChangeClassifier(MODEL, 256);
+
+        StoredFaq full = new StoredFaq("id", "Claims", "How do I submit a claim?", "Use the portal.", null, null, MODEL, 768);
+        StoredFaq truncated = new StoredFaq("id", "Claims", "How do I submit a claim?", "Use the portal.", null, null, MODEL, 256);
+
+        assertThat(truncating.classify(input, Optional.of(full)).type()).isEqualTo(ChangeType.REEMBED);
+        assertThat(truncating.classify(input, Optional.of(truncated)).type()).isEqualTo(ChangeType.UNCHANGED);
+        assertThat(classifier.classify(input, Optional.of(truncated)).type()).isEqualTo(ChangeType.UNCHANGED);
+    }
+
+    @Test
+    void idsShouldBeStableAndPreferExplicitIds() {
+        FaqInput derived = new FaqInput("Claims", "How do I  submit a claim?", "a", null, null);
+        FaqInput sameQuestion = new FaqInput("Payments", "how do i submit a claim?", "b", null, null);
+        FaqInput explicit = new FaqInput("Claims", "How do I submit a claim?", "a", null, null, "claims-001");
+
+        assertThat(FaqIds.of(derived)).startsWith("faq-").isEqualTo(FaqIds.of(sameQuestion));
+        assertThat(FaqIds.of(explicit)).isEqualTo("claims-001");
+    }
+
+    @Test
+    void uploaderShouldPatchTextOnlyChangesWithoutEmbedding() {
+        EmbeddingClient embeddingClient = embeddingClient();
+        CouchbaseFaqRepository repository = mock(CouchbaseFaqRepository.class);
+
+        FaqInput unchanged = new FaqInput("Accounts", "How do I reset my password?", "Go to settings.", null, null);
+        FaqInput answerChanged = new FaqInput("Accounts", "How do I update my email?", "Edit your profile.", null, null);
+        FaqInput questionChanged = new FaqInput("Accounts", "How do I close my account?", "Contact support.", null, null, "acc-3");
+
+        when(repository.findStored(FaqIds.of(unchanged))).thenReturn(Optional.of(stored(unchanged, MODEL)));
+        when(repository.findStored(FaqIds.of(answerChanged))).thenReturn(Optional.of(
+                new StoredFaq("x", "Accounts", "How do I update my email?", "Old answer.", null, null, MODEL)));
+        when(repository.findStored("acc-3")).thenReturn(Optional.of(
+                new StoredFaq("acc-3", "Accounts", "How can I delete my account?", "Contact support.", null, null, MODEL)));
+
+        FaqUploaderService service = uploader(embeddingClient, new CouchbaseFaqSink(repository), mock(VectorSearchIndexManager.class))
+                .embeddingDim(8)
+                .threads(2)
+                .build();
+
+        service.uploadFaqs(List.of(unchanged, answerChanged, questionChanged));
+
+        // Only the changed question is embedded, and it replaces the stored document
+        verify(embeddingClient, times(1)).embed("How do I close my account?");
+        verify(embeddingClient, times(1)).embed(anyString());
+        verify(repository, times(1)).upsertFaq(any(FaqDocument.class));
+        verify(repository, never()).insertFaq(any(FaqDocument.class));
+
+        verify(repository, times(1)).updateFields(eq(FaqIds.of(answerChanged)), eq(Map.of("answer", "Edit your profile.")));
+    }
+
+    @Test
+    void editedQuestionWithoutIdShouldInsertNewDocument() {
+        EmbeddingClient embeddingClient = embeddingClient();
+        CouchbaseFaqRepository repository = mock(CouchbaseFaqRepository.class);
+
+        FaqInput before = new FaqInput("Accounts", "How can I delete my account?", "Contact support.", null, null);
+        FaqInput edited = new FaqInput("Accounts", "How do I close my account?", "Contact support.", null, null);
+        when(repository.findStored(FaqIds.of(before))).thenReturn(Optional.of(stored(before, MODEL)));
+
+        FaqUploaderService service = uploader(embeddingClient, new CouchbaseFaqSink(repository), mock(VectorSearchIndexManager.class))
+                .embeddingDim(8)
+                .threads(2)
+                .build();
+
+        service.uploadFaqs(List.of(edited));
+
+        // Derived keys differ, so the edit cannot be matched to the stored document
+        assertThat(FaqIds.of(edited)).isNotEqualTo(FaqIds.of(before));
+        ArgumentCaptor<FaqDocument> inserted = ArgumentCaptor.forClass(FaqDocument.class);
+        verify(repository, times(1)).insertFaq(inserted.capture());
+        assertThat(inserted.getValue().getId()).isEqualTo(FaqIds.of(edited));
+        verify(repository, never()).upsertFaq(any(FaqDocument.class));
+        verify(repository, never()).findStored(FaqIds.of(before));
+        verify(repository, never()).removeAll(anyList(), anyInt());
+    }
+
+    @Test
+    void uploaderShouldOverwriteWhenChangeDetectionDisabled() {
+        EmbeddingClient embeddingClient = embeddingClient();
+        CouchbaseFaqRepository repository = mock(CouchbaseFaqRepository.class);
+
+        FaqUploaderService service = uploader(embeddingClient, new CouchbaseFaqSink(repository), mock(VectorSearchIndexManager.class))
+                .embeddingDim(8)
+                .threads(2)
+                .changeDetection(false)
+                .build();
+
+        service.uploadFaqs(List.of(new FaqInput("Accounts", "How do I reset my password?", "Go to settings.", null, null)));
+
+        verify(repository, never()).findStored(anyString());
+        verify(repository, times(1)).upsertFaq(any(FaqDocument.class));
+    }
+
+    private static EmbeddingClient embeddingClient() {
+        EmbeddingClient embeddingClient = mock(EmbeddingClient.class);
+        when(embeddingClient.getProvider()).thenReturn("ibm-granite");
+        when(embeddingClient.getModelName()).thenReturn(MODEL);
+        when(embeddingClient.embed(anyString())).thenReturn(new float[8]);
+        return embeddingClient;
+    }
+
+    private static StoredFaq stored(FaqInput input, String model) {
+        return new StoredFaq(FaqIds.of(input), input.category(), input.question(), input.answer(),
+                input.image(), input.link(), model);
+    }
+}
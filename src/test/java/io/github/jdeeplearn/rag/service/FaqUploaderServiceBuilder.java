@@ -0,0 +1,84 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.index.VectorSearchIndexManager;
+import io.github.jdeeplearn.rag.sink.FaqSink;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Builds a FaqUploaderService for tests through its only constructor, starting from
+ * the application.yml defaults, so each test names just the settings it depends on.
+ */
+public final class FaqUploaderServiceBuilder {
+
+    private final EmbeddingClient embeddingClient;
+    private final FaqSink sink;
+    private final VectorSearchIndexManager indexManager;
+    private EmbeddingBatcher embeddingBatcher;
+    private Executor sharedExecutor;
+    private int embeddingDim = 768;
+    private int storedDim;
+    private int threads = 4;
+    private boolean changeDetection = true;
+    private int bootstrapBufferSize = 1000;
+    private double maxDocsPerSecond;
+
+    private FaqUploaderServiceBuilder(EmbeddingClient embeddingClient, FaqSink sink, VectorSearchIndexManager indexManager) {
+        this.embeddingClient = embeddingClient;
+        this.sink = sink;
+        this.indexManager = indexManager;
+    }
+
+    public static FaqUploaderServiceBuilder uploader(
+            EmbeddingClient embeddingClient,
+            FaqSink sink,
+            VectorSearchIndexManager indexManager
+    ) {
+        return new FaqUploaderServiceBuilder(embeddingClient, sink, indexManager);
+    }
+
+    public FaqUploaderServiceBuilder embeddingBatcher(EmbeddingBatcher embeddingBatcher) {
+        this.embeddingBatcher = embeddingBatcher;
+        return this;
+    }
+
+    public FaqUploaderServiceBuilder sharedExecutor(Executor sharedExecutor) {
+        this.sharedExecutor = sharedExecutor;
+        return this;
+    }
+
+    public FaqUploaderServiceBuilder embeddingDim(int embeddingDim) {
+        this.embeddingDim = embeddingDim;
+        return this;
+    }
+
+    public FaqUploaderServiceBuilder storedDim(int storedDim) {
+        this.storedDim = storedDim;
+        return this;
+    }
+
+    public FaqUploaderServiceBuilder threads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public FaqUploaderServiceBuilder changeDetection(boolean changeDetection) {
+        this.changeDetection = changeDetection;
+        return this;
+    }
+
+    public FaqUploaderServiceBuilder bootstrapBufferSize(int bootstrapBufferSize) {
+        this.bootstrapBufferSize = bootstrapBufferSize;
+        return this;
+    }
+
+    public FaqUploaderServiceBuilder maxDocsPerSecond(double maxDocsPerSecond) {
+        this.maxDocsPerSecond = maxDocsPerSecond;
+        return this;
+    }
+
+    public FaqUploaderService build() {
+        return new FaqUploaderService(embeddingClient, embeddingBatcher, sink, indexManager, sharedExecutor,
+                embeddingDim, storedDim, threads, changeDetection, bootstrapBufferSize, maxDocsPerSecond);
+    }
+}
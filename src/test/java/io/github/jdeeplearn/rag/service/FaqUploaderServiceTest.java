@@ -1,8 +1,14 @@
 package io.github.jdeeplearn.rag.service;
 
+import com.couchbase.client.core.error.CouchbaseException;
+import com.couchbase.client.core.error.DurabilityImpossibleException;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.kv.UpsertOptions;
+import io.github.jdeeplearn.rag.config.CouchbaseReadiness;
 import io.github.jdeeplearn.rag.index.VectorSearchIndexManager;
 import io.github.jdeeplearn.rag.model.FaqDocument;
 import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.sink.CouchbaseFaqSink;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,8 +16,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
+import static io.github.jdeeplearn.rag.service.FaqUploaderServiceBuilder.uploader;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -21,6 +32,11 @@ import static org.mockito.Mockito.*;
  *  - Creates FaqDocument correctly
  *  - Persists via CouchbaseFaqRepository
  *  - Ensures vector index via VectorSearchIndexManager
+ *  - Embeds ahead while Couchbase is still bootstrapping and writes once it is ready,
+ *    but only without change detection
+ *  - Fails FAQs instead of hanging when the sink cannot start, and retries a failed index request
+ *  - Counts a write that fails even after the durability fallback as failed
+ *  - Leaves the workers of a shared FairScheduler free while a tenant is throttled or bootstrapping
  */
 @ExtendWith(MockitoExtension.class)
 class FaqUploaderServiceTest {
@@ -36,18 +52,15 @@ class FaqUploaderServiceTest {
         repository = mock(CouchbaseFaqRepository.class);
         indexManager = mock(VectorSearchIndexManager.class);
 
-        // Default stubs
-        when(embeddingClient.getProvider()).thenReturn("ibm-granite");
+        // Default stubs; lenient because not every test gets as far as embedding
+        lenient().when(embeddingClient.getProvider()).thenReturn("ibm-granite");
         when(embeddingClient.getModelName()).thenReturn("granite-embedding-english-r2");
-        when(embeddingClient.embed(anyString())).thenReturn(fakeVector(1024));
+        lenient().when(embeddingClient.embed(anyString())).thenReturn(fakeVector(1024));
 
-        service = new FaqUploaderService(
-                embeddingClient,
-                repository,
-                indexManager,
-                1024,
-                2
-        );
+        service = uploader(embeddingClient, new CouchbaseFaqSink(repository), indexManager)
+                .embeddingDim(1024)
+                .threads(2)
+                .build();
     }
 
     @Test
@@ -95,6 +108,174 @@ class FaqUploaderServiceTest {
         assertThat(docs.stream().anyMatch(d -> d.getQuestion().contains("password"))).isTrue();
     }
 
+    @Test
+    void shouldEmbedAheadUntilSinkIsReady() throws Exception {
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        FaqUploaderService bootstrapping = uploader(
+                embeddingClient, new CouchbaseFaqSink(repository, new CouchbaseReadiness(ready)), indexManager)
+                .embeddingDim(1024)
+                .threads(2)
+                .changeDetection(false)
+                .bootstrapBufferSize(3)
+                .build();
+
+        List<FaqUploaderService.FaqInput> faqs = IntStream.range(0, 8)
+                .mapToObj(i -> new FaqUploaderService.FaqInput("General", "Question " + i + "?", "Answer " + i, null, null))
+                .toList();
+
+        try {
+            CompletableFuture<UploadProgress> upload = CompletableFuture.supplyAsync(() -> bootstrapping.uploadFaqs(faqs));
+
+            // The buffer (3) fills up, then no further FAQs are handed out
+            verify(embeddingClient, timeout(2_000).times(3)).embed(anyString());
+            TimeUnit.MILLISECONDS.sleep(200);
+            verify(embeddingClient, times(3)).embed(anyString());
+            verify(repository, never()).upsertFaq(any());
+            assertThat(upload).isNotDone();
+
+            ready.complete(null);
+
+            UploadProgress progress = upload.get(5, TimeUnit.SECONDS);
+            assertThat(progress.getWritten()).isEqualTo(8);
+            verify(embeddingClient, times(8)).embed(anyString());
+            verify(repository, times(8)).upsertFaq(any());
+        } finally {
+            bootstrapping.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotEmbedAheadWithChangeDetection() throws Exception {
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        FaqUploaderService bootstrapping = uploader(
+                embeddingClient, new CouchbaseFaqSink(repository, new CouchbaseReadiness(ready)), indexManager)
+                .embeddingDim(1024)
+                .threads(2)
+                .bootstrapBufferSize(3)
+                .build();
+
+        try {
+            CompletableFuture<UploadProgress> upload = CompletableFuture.supplyAsync(() -> bootstrapping.uploadFaqs(
+                    List.of(new FaqUploaderService.FaqInput("General", "Question?", "Answer", null, null))));
+
+            // Unchanged FAQs must not be embedded, so nothing happens before classification
+            verify(indexManager, timeout(2_000)).ensureIndex();
+            TimeUnit.MILLISECONDS.sleep(200);
+            verify(embeddingClient, never()).embed(anyString());
+            assertThat(upload).isNotDone();
+
+            ready.complete(null);
+
+            assertThat(upload.get(5, TimeUnit.SECONDS).getWritten()).isEqualTo(1);
+            verify(repository, times(1)).findStored(anyString());
+            verify(embeddingClient, times(1)).embed(anyString());
+        } finally {
+            bootstrapping.shutdown();
+        }
+    }
+
+    @Test
+    void shouldFailFaqsInsteadOfHangingWhenSinkCannotStart() throws Exception {
+        FaqUploaderService broken = uploader(
+                embeddingClient,
+                new CouchbaseFaqSink(repository, new CouchbaseReadiness(
+                        CompletableFuture.failedFuture(new IllegalStateException("Bucket not found")))),
+                indexManager)
+                .embeddingDim(1024)
+                .threads(2)
+                .build();
+
+        try {
+            UploadProgress progress = CompletableFuture.supplyAsync(() -> broken.uploadFaqs(List.of(
+                    new FaqUploaderService.FaqInput("General", "Question 1?", "Answer", null, null),
+                    new FaqUploaderService.FaqInput("General", "Question 2?", "Answer", null, null))))
+                    .get(5, TimeUnit.SECONDS);
+
+            assertThat(progress.getFailed()).isEqualTo(2);
+            verify(repository, never()).insertFaq(any());
+        } finally {
+            broken.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRetryIndexAfterFailedIndexRequest() {
+        when(indexManager.ensureIndex()).thenReturn(false, true);
+        List<FaqUploaderService.FaqInput> faqs = List.of(
+                new FaqUploaderService.FaqInput("General", "Question?", "Answer", null, null));
+
+        // Writes are not held back by the failed request; the next upload asks again
+        assertThat(service.uploadFaqs(faqs).getWritten()).isEqualTo(1);
+        assertThat(service.uploadFaqs(faqs).getWritten()).isEqualTo(1);
+        service.uploadFaqs(faqs);
+
+        verify(indexManager, times(2)).ensureIndex();
+    }
+
+    @Test
+    void shouldCountFailedWritesAsFailed() {
+        Collection collection = mock(Collection.class);
+        // Change detection off: every FAQ is written with an upsert
+        when(collection.upsert(anyString(), any(), any(UpsertOptions.class)))
+                .thenThrow(mock(DurabilityImpossibleException.class))
+                .thenThrow(new CouchbaseException("Service unavailable"));
+        FaqUploaderService failing = uploader(
+                embeddingClient, new CouchbaseFaqSink(new CouchbaseFaqRepository(collection, "majority")), indexManager)
+                .embeddingDim(1024)
+                .threads(1)
+                .changeDetection(false)
+                .build();
+
+        try {
+            UploadProgress progress = failing.uploadFaqs(List.of(
+                    new FaqUploaderService.FaqInput("Account", "How do I reset my password?", "Go to settings.", null, null)));
+
+            assertThat(progress.getWritten()).isZero();
+            assertThat(progress.getFailed()).isEqualTo(1);
+            verify(collection, times(2)).upsert(anyString(), any(), any(UpsertOptions.class));
+        } finally {
+            failing.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotHoldSharedWorkersWhileThrottledOrBootstrapping() throws Exception {
+        FairScheduler scheduler = new FairScheduler("test", 1);
+        FaqUploaderService throttled = uploader(embeddingClient, new CouchbaseFaqSink(repository), indexManager)
+                .sharedExecutor(scheduler.lane("throttled", 1))
+                .embeddingDim(1024)
+                .maxDocsPerSecond(2)
+                .build();
+        FaqUploaderService bootstrapping = uploader(embeddingClient,
+                new CouchbaseFaqSink(repository, new CouchbaseReadiness(new CompletableFuture<>())), indexManager)
+                .sharedExecutor(scheduler.lane("bootstrapping", 1))
+                .embeddingDim(1024)
+                .build();
+        FaqUploaderService small = uploader(embeddingClient, new CouchbaseFaqSink(repository), indexManager)
+                .sharedExecutor(scheduler.lane("small", 1))
+                .embeddingDim(1024)
+                .build();
+
+        try {
+            CompletableFuture.runAsync(() -> throttled.uploadFaqs(faqs("Throttled", 20)));
+            CompletableFuture.runAsync(() -> bootstrapping.uploadFaqs(faqs("Bootstrapping", 5)));
+            TimeUnit.MILLISECONDS.sleep(200);
+
+            // The only worker is not asleep in the throttle or parked on the other tenant's sink
+            UploadProgress progress = CompletableFuture.supplyAsync(() -> small.uploadFaqs(faqs("Small", 3)))
+                    .get(1, TimeUnit.SECONDS);
+            assertThat(progress.getWritten()).isEqualTo(3);
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    private static List<FaqUploaderService.FaqInput> faqs(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new FaqUploaderService.FaqInput("General", prefix + " question " + i + "?", "Answer", null, null))
+                .toList();
+    }
+
     private static float[] fakeVector(int dim) {
         float[] v = new float[dim];
         for (int i = 0; i < dim; i++) {
@@ -0,0 +1,167 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.index.VectorSearchIndexManager;
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.sink.CouchbaseFaqSink;
+import io.github.jdeeplearn.rag.tenant.Tenant;
+import io.github.jdeeplearn.rag.tenant.TenantRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static io.github.jdeeplearn.rag.service.FaqUploaderServiceBuilder.uploader;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies that IngestionJobService:
+ *  - Runs batch and stream jobs asynchronously against one warm uploader
+ *  - Reports per-job progress and final status
+ *  - Ensures the vector index only once across jobs
+ *  - Sends tenant jobs to the tenant's uploader and rejects unknown tenants
+ *  - Returns a stream job's handle at once and reads the stream no faster than its chunks are uploaded
+ */
+class IngestionJobServiceTest {
+
+    private CouchbaseFaqRepository repository;
+    private VectorSearchIndexManager indexManager;
+    private FaqUploaderService uploaderService;
+    private IngestionJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        EmbeddingClient embeddingClient = mock(EmbeddingClient.class);
+        when(embeddingClient.getProvider()).thenReturn("ibm-granite");
+        when(embeddingClient.getModelName()).thenReturn("granite-embedding-english-r2");
+        when(embeddingClient.embed(anyString())).thenReturn(new float[8]);
+
+        repository = mock(CouchbaseFaqRepository.class);
+        indexManager = mock(VectorSearchIndexManager.class);
+        when(indexManager.ensureIndex()).thenReturn(true);
+        uploaderService = uploader(embeddingClient, new CouchbaseFaqSink(repository), indexManager)
+                .embeddingDim(8)
+                .threads(2)
+                .build();
+        jobService = new IngestionJobService(uploaderService, null, 2, 3, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+        uploaderService.shutdown();
+    }
+
+    @Test
+    void batchAndStreamJobsShouldCompleteWithProgress() throws Exception {
+        IngestionJob batch = jobService.submitBatch(faqs("batch", 4));
+        IngestionJob stream = jobService.submitStream(Flux.fromIterable(faqs("stream", 7)));
+
+        awaitFinished(batch);
+        awaitFinished(stream);
+
+        assertThat(batch.getStatus()).isEqualTo(IngestionJob.Status.COMPLETED);
+        assertThat(batch.getProgress().getSubmitted()).isEqualTo(4);
+        assertThat(batch.getProgress().getWritten()).isEqualTo(4);
+
+        assertThat(stream.getStatus()).isEqualTo(IngestionJob.Status.COMPLETED);
+        assertThat(stream.getProgress().getProcessed()).isEqualTo(7);
+        assertThat(stream.getStartedAt()).isNotNull();
+        assertThat(stream.getFinishedAt()).isNotNull();
+
+        verify(repository, times(11)).insertFaq(any(FaqDocument.class));
+        verify(indexManager, times(1)).ensureIndex();
+
+        assertThat(jobService.find(batch.getId())).containsSame(batch);
+        assertThat(jobService.list()).hasSize(2);
+    }
+
+    @Test
+    void failedInputStreamShouldFailTheJob() throws Exception {
+        Flux<FaqInput> broken = Flux.concat(
+                Flux.fromIterable(faqs("broken", 2)),
+                Flux.error(new IllegalArgumentException("malformed line 3")));
+
+        IngestionJob job = jobService.submitStream(broken);
+        awaitFinished(job);
+        assertThat(job.getStatus()).isEqualTo(IngestionJob.Status.FAILED);
+        assertThat(job.getError()).contains("malformed line 3");
+    }
+
+    @Test
+    void tenantJobsShouldUseTheTenantUploader() throws Exception {
+        FaqUploaderService tenantUploader = mock(FaqUploaderService.class);
+        TenantRegistry tenants = new TenantRegistry(List.of(
+                new Tenant("billing", 1, "faq_scope", "billing", "billing_vectors", null, tenantUploader)));
+        IngestionJobService tenantJobs = new IngestionJobService(uploaderService, tenants, 2, 3, 10);
+        try {
+            IngestionJob job = tenantJobs.submitBatch("billing", faqs("billing", 2));
+            awaitFinished(job);
+
+            assertThat(job.getTenant()).isEqualTo("billing");
+            assertThat(job.getStatus()).isEqualTo(IngestionJob.Status.COMPLETED);
+            verify(tenantUploader).uploadFaqs(anyList(), same(job.getProgress()));
+            verify(repository, never()).insertFaq(any(FaqDocument.class));
+            assertThatThrownBy(() -> tenantJobs.submitBatch("shipping", faqs("shipping", 1)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            tenantJobs.shutdown();
+        }
+    }
+
+    @Test
+    void streamShouldNotBeReadAheadOfSlowUploads() throws Exception {
+        FaqUploaderService slowUploader = mock(FaqUploaderService.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(slowUploader.uploadFaqs(anyList(), any(UploadProgress.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(1);
+        });
+        IngestionJobService slowJobs = new IngestionJobService(slowUploader, null, 2, 3, 10);
+        AtomicInteger emitted = new AtomicInteger();
+        try {
+            // The job handle comes back at once, before the stream has been read
+            IngestionJob job = slowJobs.submitStream(Flux.fromIterable(faqs("slow", 300))
+                    .doOnNext(faq -> emitted.incrementAndGet()));
+            assertThat(slowJobs.find(job.getId())).containsSame(job);
+
+            verify(slowUploader, timeout(2_000)).uploadFaqs(anyList(), any(UploadProgress.class));
+            TimeUnit.MILLISECONDS.sleep(200);
+            // One chunk uploading, at most a couple more buffered; nothing near the whole stream
+            assertThat(emitted.get()).isLessThanOrEqualTo(12);
+            assertThat(job.isFinished()).isFalse();
+
+            release.countDown();
+            awaitFinished(job);
+            assertThat(job.getStatus()).isEqualTo(IngestionJob.Status.COMPLETED);
+            assertThat(emitted.get()).isEqualTo(300);
+            verify(slowUploader, times(100)).uploadFaqs(anyList(), any(UploadProgress.class));
+        } finally {
+            slowJobs.shutdown();
+        }
+    }
+
+    private static List<FaqInput> faqs(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new FaqInput("Accounts", prefix + " question " + i + "?", "Answer " + i, null, null))
+                .toList();
+    }
+
+    private static void awaitFinished(IngestionJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.repository.FaqJsonEncoder;
+import io.github.jdeeplearn.rag.service.FaqUploaderService.FaqInput;
+import io.github.jdeeplearn.rag.service.LoadVerifier.Mismatch;
+import io.github.jdeeplearn.rag.service.LoadVerifier.Reason;
+import io.github.jdeeplearn.rag.service.LoadVerifier.VerifyReport;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that LoadVerifier:
+ *  - passes when every stored document matches its source record
+ *  - reports missing documents, changed content, wrong models and wrong dims by reason
+ *  - checks unit length of truncated vectors
+ */
+class LoadVerifierTest {
+
+    private static final String MODEL = "granite-embedding-english-r2";
+
+    private final CouchbaseFaqRepository repository = mock(CouchbaseFaqRepository.class);
+
+    @Test
+    void shouldPassWhenEverythingMatches() {
+        FaqInput faq = faq("q1", "a1");
+        stored(faq, MODEL, unitVector(8));
+
+        VerifyReport report = verifier(8, 0).verify(List.of(faq, faq), mismatch -> { });
+
+        assertThat(report.passed()).isTrue();
+        assertThat(report.expected()).isEqualTo(1);
+        assertThat(report.matched()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReportMismatchesByReason() {
+        FaqInput missing = faq("missing", "a");
+        FaqInput changed = faq("changed", "new answer");
+        FaqInput oldModel = faq("old model", "a");
+        FaqInput wrongDim = faq("wrong dim", "a");
+        FaqInput ok = faq("ok", "a");
+        when(repository.readRaw(anyString())).thenReturn(Mono.empty());
+        stored(faq("changed", "old answer"), MODEL, unitVector(8));
+        stored(oldModel, "other-model", unitVector(8));
+        stored(wrongDim, MODEL, unitVector(4));
+        stored(ok, MODEL, unitVector(8));
+
+        List<Mismatch> reported = new ArrayList<>();
+        VerifyReport report = verifier(8, 0).verify(List.of(missing, changed, oldModel, wrongDim, ok), reported::add);
+
+        assertThat(report.passed()).isFalse();
+        assertThat(report.matched()).isEqualTo(1);
+        assertThat(report.mismatches()).isEqualTo(Map.of(
+                Reason.MISSING, 1L, Reason.CONTENT, 1L, Reason.MODEL, 1L, Reason.DIM, 1L));
+        assertThat(reported).hasSize(4);
+        assertThat(reported).filteredOn(m -> m.reason() == Reason.CONTENT)
+                .singleElement()
+                .satisfies(m -> assertThat(m.detail()).contains("answer"));
+    }
+
+    @Test
+    void truncatedVectorsShouldBeUnitLength() {
+        FaqInput normalized = faq("normalized", "a");
+        FaqInput scaled = faq("scaled", "a");
+        stored(normalized, MODEL, unitVector(4));
+        float[] vector = unitVector(4);
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= 2;
+        }
+        stored(scaled, MODEL, vector);
+
+        VerifyReport report = verifier(8, 4).verify(List.of(normalized, scaled), mismatch -> { });
+
+        assertThat(report.matched()).isEqualTo(1);
+        assertThat(report.mismatches()).isEqualTo(Map.of(Reason.VECTOR, 1L));
+    }
+
+    private LoadVerifier verifier(int embeddingDim, int storedDim) {
+        return new LoadVerifier(repository, MODEL, embeddingDim, storedDim, false, 0.01, 16, 100);
+    }
+
+    private void stored(FaqInput faq, String model, float[] vector) {
+        String id = FaqIds.of(faq);
+        FaqDocument doc = FaqDocument.of(id, faq.category(), faq.question(), faq.answer(), faq.image(), faq.link(),
+                vector, "ibm-granite", model, vector.length, "cosine", "faq-loader", "v1.0.0");
+        when(repository.readRaw(id)).thenReturn(Mono.just(FaqJsonEncoder.toBytes(doc)));
+    }
+
+    private static FaqInput faq(String question, String answer) {
+        return new FaqInput("General", question, answer, null, "https://example.com/" + question.replace(' ', '-'));
+    }
+
+    private static float[] unitVector(int dim) {
+        float[] vector = new float[dim];
+        for (int i = 0; i < dim; i++) {
+            vector[i] = (float) (1 / Math.sqrt(dim));
+        }
+        return vector;
+    }
+}
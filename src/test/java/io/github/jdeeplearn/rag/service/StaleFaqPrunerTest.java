@@ -0,0 +1,71 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.repository.CouchbaseFaqRepository;
+import io.github.jdeeplearn.rag.service.StaleFaqPruner.PruneReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifies that StaleFaqPruner:
+ *  - only reports orphans in dry-run mode
+ *  - removes orphans in bounded batches
+ *  - refuses to remove more than the configured share of stored FAQs
+ */
+class StaleFaqPrunerTest {
+
+    private final CouchbaseFaqRepository repository = mock(CouchbaseFaqRepository.class);
+
+    @Test
+    void dryRunShouldReportOrphansWithoutRemoving() {
+        when(repository.scanIds()).thenReturn(Stream.of("faq-1", "faq-2", "faq-3", "faq-4"));
+
+        PruneReport report = new StaleFaqPruner(repository, true, 1000, 8, 0.5, 100)
+                .prune(Set.of("faq-1", "faq-3", "faq-5"));
+
+        assertThat(report.dryRun()).isTrue();
+        assertThat(report.stored()).isEqualTo(4);
+        assertThat(report.orphanCount()).isEqualTo(2);
+        assertThat(report.orphans()).containsExactly("faq-2", "faq-4");
+        assertThat(report.removed()).isZero();
+        verify(repository, never()).removeAll(anyList(), anyInt());
+    }
+
+    @Test
+    void shouldRemoveOrphansInBatches() {
+        when(repository.scanIds()).thenReturn(Stream.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j"));
+        when(repository.removeAll(anyList(), anyInt())).thenAnswer(call -> (long) call.<List<?>>getArgument(0).size());
+
+        PruneReport report = new StaleFaqPruner(repository, false, 2, 8, 0.5, 1)
+                .prune(Set.of("a", "b", "c", "d", "e", "f"));
+
+        assertThat(report.orphanCount()).isEqualTo(4);
+        assertThat(report.removed()).isEqualTo(4);
+        assertThat(report.orphans()).containsExactly("g");
+        verify(repository).removeAll(List.of("g", "h"), 8);
+        verify(repository).removeAll(List.of("i", "j"), 8);
+    }
+
+    @Test
+    void shouldRefuseToRemoveMostOfTheCollection() {
+        when(repository.scanIds()).thenReturn(Stream.of("a", "b", "c", "d"));
+
+        StaleFaqPruner pruner = new StaleFaqPruner(repository, false, 1000, 8, 0.5, 100);
+
+        assertThatThrownBy(() -> pruner.prune(Set.of("a")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("3 of 4");
+        verify(repository, never()).removeAll(anyList(), anyInt());
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.jdeeplearn.rag.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that UploadProgressReporter:
+ *  - reports rate, FAQs in flight, failures and ETA
+ *  - reports an unknown ETA while nothing completes
+ */
+class UploadProgressReporterTest {
+
+    @Test
+    void shouldReportRateAndEta() {
+        assertThat(UploadProgressReporter.line(100_000, 40_000, 3, 500))
+                .isEqualTo("Upload progress: 40000/100000 (40%), 500 FAQs/s, 60000 in flight, 3 failed, ETA 2m00s");
+        assertThat(UploadProgressReporter.line(10, 10, 0, 5))
+                .endsWith("0 in flight, 0 failed, ETA 0s");
+    }
+
+    @Test
+    void etaShouldBeUnknownWithoutProgress() {
+        assertThat(UploadProgressReporter.line(500, 0, 0, 0))
+                .isEqualTo("Upload progress: 0/500 (0%), 0 FAQs/s, 500 in flight, 0 failed, ETA unknown");
+    }
+}
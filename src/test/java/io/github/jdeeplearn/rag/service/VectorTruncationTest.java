@@ -0,0 +1,48 @@
+package io.github.jdeeplearn.rag.service;
+
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Verifies that VectorTruncation:
+ *  - keeps the leading components and re-normalizes them to unit length
+ *  - leaves vectors alone when no shorter stored dim is configured
+ *  - rejects a stored dim above the model dim
+ *  - produces documents that record both dims
+ */
+class VectorTruncationTest {
+
+    @Test
+    void shouldKeepPrefixAndRenormalize() {
+        float[] vector = {3f, 4f, 12f, 84f};
+
+        float[] truncated = VectorTruncation.truncate(vector, 2);
+
+        assertThat(truncated).containsExactly(new float[]{0.6f, 0.8f}, within(1e-6f));
+        assertThat(VectorTruncation.truncate(vector, 0)).isSameAs(vector);
+        assertThat(VectorTruncation.truncate(vector, 4)).isSameAs(vector);
+        assertThat(VectorTruncation.truncate(new float[2], 1)).containsExactly(0f);
+    }
+
+    @Test
+    void storedDimShouldDefaultToModelDim() {
+        assertThat(VectorTruncation.storedDim(768, 0)).isEqualTo(768);
+        assertThat(VectorTruncation.storedDim(768, 256)).isEqualTo(256);
+        assertThatThrownBy(() -> VectorTruncation.storedDim(768, 1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void documentShouldRecordModelAndStoredDim() {
+        FaqDocument doc = FaqDocument.of("faq-1", "Accounts", "How do I log in?", "Use SSO.", null, null,
+                VectorTruncation.truncate(new float[]{1f, 1f, 1f, 1f}, 2), "ibm-granite", "granite", 4, 2,
+                "cosine", "faq-loader", "v1.0.0");
+
+        assertThat(doc.getQuestionVector()).hasSize(2);
+        assertThat(doc.getMeta()).containsEntry("model_dim", 4).containsEntry("stored_dim", 2);
+    }
+}
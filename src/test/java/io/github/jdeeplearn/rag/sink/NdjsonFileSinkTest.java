@@ -0,0 +1,81 @@
+package io.github.jdeeplearn.rag.sink;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.jdeeplearn.rag.model.FaqDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that NdjsonFileSink:
+ *  - Writes one complete document per line, key included
+ *  - Routes each key to a stable partition file
+ *  - Survives buffers smaller than a single line
+ */
+class NdjsonFileSinkTest {
+
+    @TempDir
+    Path exportDir;
+
+    @Test
+    void shouldWritePartitionedNdjsonWithKeysAndVectors() throws Exception {
+        // Buffer deliberately smaller than one document to exercise the oversized-line path
+        try (NdjsonFileSink sink = new NdjsonFileSink(exportDir, "faqs", 4, 2048)) {
+            for (int i = 0; i < 50; i++) {
+                sink.write(doc("faq-" + i, 768));
+            }
+            sink.flush();
+            assertThat(sink.fileOf("faq-7")).isEqualTo(sink.fileOf("faq-7"));
+        }
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(exportDir)) {
+            files = listing.sorted().toList();
+        }
+        assertThat(files).hasSize(4);
+        assertThat(files.get(0).getFileName().toString()).isEqualTo("faqs-00000.ndjson");
+
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> lines = new ArrayList<>();
+        for (Path file : files) {
+            for (String line : Files.readAllLines(file)) {
+                lines.add(mapper.readTree(line));
+            }
+        }
+
+        assertThat(lines).hasSize(50);
+        assertThat(lines.stream().map(n -> n.get("id").asText()).distinct()).hasSize(50);
+
+        JsonNode first = lines.get(0);
+        assertThat(first.get("type").asText()).isEqualTo("faq");
+        assertThat(first.get("question_vector").size()).isEqualTo(768);
+        assertThat(first.get("meta").get("model_dim").asInt()).isEqualTo(768);
+        assertThat(first.has("image")).isTrue();
+        assertThat(first.get("image").isNull()).isTrue();
+    }
+
+    @Test
+    void shouldNotRequireVectorIndex() {
+        try (NdjsonFileSink sink = new NdjsonFileSink(exportDir, "faqs", 1, 1024)) {
+            assertThat(sink.needsIndex()).isFalse();
+        }
+    }
+
+    private static FaqDocument doc(String id, int dim) {
+        float[] vector = new float[dim];
+        for (int i = 0; i < dim; i++) {
+            vector[i] = 0.001f * i;
+        }
+        return FaqDocument.of(id, "Claims", "How do I submit a claim " + id + "?", "Use the portal.",
+                null, "https://example.com/docs/" + id, vector,
+                "ibm-granite", "granite-embedding-english-r2", dim, "cosine", "faq-loader", "v1.0.0");
+    }
+}
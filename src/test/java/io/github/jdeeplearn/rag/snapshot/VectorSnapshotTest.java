@@ -0,0 +1,67 @@
+package io.github.jdeeplearn.rag.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that vector snapshots:
+ *  - round-trip keys and vectors from several partitions, in partition order
+ *  - skip vectors of another dimension
+ *  - keep rows as contiguous little-endian float32 at offset 64 (numpy/MemorySegment friendly)
+ *  - are split into key ranges that cover every key exactly once
+ */
+class VectorSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldRoundTripRowsFromAllPartitions() throws Exception {
+        Path file = dir.resolve("vectors.fvec");
+
+        try (VectorSnapshotWriter writer = new VectorSnapshotWriter(file, 3, 2)) {
+            writer.partition(1).add("faq-b", new float[]{4f, 5f, 6f});
+            writer.partition(0).add("faq-a", new float[]{1f, 2f, 3f});
+            assertThat(writer.partition(0).add("faq-old", new float[]{1f, 2f})).isFalse();
+            writer.partition(1).add("faq-\u00fc", new float[]{7f, 8f, 9f});
+
+            assertThat(writer.finish()).isEqualTo(3);
+        }
+
+        try (VectorSnapshot snapshot = VectorSnapshot.open(file)) {
+            assertThat(snapshot.dim()).isEqualTo(3);
+            assertThat(snapshot.count()).isEqualTo(3);
+            assertThat(snapshot.id(0)).isEqualTo("faq-a");
+            assertThat(snapshot.id(1)).isEqualTo("faq-b");
+            assertThat(snapshot.id(2)).isEqualTo("faq-\u00fc");
+            assertThat(snapshot.vector(0)).containsExactly(1f, 2f, 3f);
+            assertThat(snapshot.vector(2)).containsExactly(7f, 8f, 9f);
+        }
+
+        ByteBuffer raw = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(raw.getInt(8)).isEqualTo(VectorSnapshot.VERSION);
+        assertThat(raw.getInt(12)).isEqualTo(3);
+        assertThat(raw.getLong(16)).isEqualTo(3);
+        assertThat(raw.getFloat(64 + 4 * 3)).isEqualTo(4f);
+        assertThat(Files.list(dir)).containsExactly(file);
+    }
+
+    @Test
+    void keyRangesShouldCoverEveryKeyOnce() {
+        List<KeyRange> ranges = KeyRange.split("faq-", 4);
+
+        assertThat(ranges).hasSize(6);
+        for (String key : List.of("", "abc", "faq-", "faq-0", "faq-3f", "faq-4", "faq-ffff", "faq-z", "faq.", "zzz")) {
+            assertThat(ranges.stream().filter(range -> range.contains(key))).as(key).hasSize(1);
+        }
+        assertThat(KeyRange.split("faq-", 1)).containsExactly(new KeyRange(null, null));
+    }
+}